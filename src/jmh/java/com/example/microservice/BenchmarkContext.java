@@ -0,0 +1,55 @@
+package com.example.microservice;
+
+import com.example.microservice.model.Todo;
+import com.example.microservice.repository.TodoRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Boots the full application against a private in-memory H2 database for benchmarks that need Spring.
+ * Request logging is turned down to WARN so console output does not dominate the measurements.
+ */
+public final class BenchmarkContext {
+
+  public static final String API_KEY = "bench-api-key";
+
+  private BenchmarkContext() {
+  }
+
+  public static ConfigurableApplicationContext start(String... overrides) {
+    Map<String, String> args = new LinkedHashMap<>();
+    args.put("server.port", "0");
+    args.put("api.key", API_KEY);
+    args.put("spring.datasource.url", "jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1");
+    args.put("logging.level.root", "WARN");
+    args.put("logging.level.com.example.microservice", "WARN");
+    // name=value pairs; a repeated command line option would be joined with a comma instead of replaced
+    for (String override : overrides) {
+      int eq = override.indexOf('=');
+      args.put(override.substring(0, eq), override.substring(eq + 1));
+    }
+    return new SpringApplicationBuilder(JavaMicroserviceK8Application.class).run(
+        args.entrySet().stream().map(e -> "--" + e.getKey() + "=" + e.getValue()).toArray(String[]::new));
+  }
+
+  public static List<Long> seed(TodoRepository todoRepository, int rows) {
+    List<Todo> todos = new ArrayList<>(rows);
+    for (int i = 0; i < rows; i++) {
+      todos.add(sampleTodo(i));
+    }
+    return todoRepository.saveAll(todos).stream().map(Todo::getId).toList();
+  }
+
+  public static Todo sampleTodo(int i) {
+    Todo todo = new Todo();
+    todo.setTitle("Benchmark TODO " + i);
+    todo.setDescription("Description for benchmark TODO " + i + " with a little more text to look realistic");
+    todo.setCompleted(i % 2 == 0);
+    return todo;
+  }
+}
@@ -0,0 +1,83 @@
+package com.example.microservice.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ApiKeyAuthFilterBenchmark {
+
+  private static final String API_KEY = "bench-api-key-0123456789abcdef";
+
+  private final FilterChain chain = (request, response) -> {
+  };
+
+  private ApiKeyAuthFilter filter;
+  private MockHttpServletRequest validKeyRequest;
+  private MockHttpServletRequest invalidKeyRequest;
+  private MockHttpServletRequest missingKeyRequest;
+  private MockHttpServletRequest healthProbeRequest;
+  private MockHttpServletResponse response;
+
+  @Setup
+  public void setUp() {
+    // Limits high enough never to refuse, so the admission counters are exercised on every call
+    filter = new ApiKeyAuthFilter(new ApiClients(List.of(new ApiClient("bench", API_KEY, 1e9, 1_000_000, 1_000_000))),
+        SecurityConfig.PUBLIC_PATHS);
+    validKeyRequest = request(API_KEY);
+    invalidKeyRequest = request("bench-api-key-0123456789abcdeX");
+    missingKeyRequest = request(null);
+    healthProbeRequest = request(API_KEY);
+    healthProbeRequest.setRequestURI("/api/health");
+    response = new MockHttpServletResponse();
+  }
+
+  @Benchmark
+  public Authentication validKey() throws ServletException, IOException {
+    return authenticate(validKeyRequest);
+  }
+
+  @Benchmark
+  public Authentication invalidKey() throws ServletException, IOException {
+    return authenticate(invalidKeyRequest);
+  }
+
+  @Benchmark
+  public Authentication missingKey() throws ServletException, IOException {
+    return authenticate(missingKeyRequest);
+  }
+
+  // Probes that send the key anyway, as some load balancers are configured to
+  @Benchmark
+  public Authentication healthProbe() throws ServletException, IOException {
+    return authenticate(healthProbeRequest);
+  }
+
+  private Authentication authenticate(MockHttpServletRequest request) throws ServletException, IOException {
+    filter.doFilter(request, response, chain);
+    Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    SecurityContextHolder.clearContext();
+    return authentication;
+  }
+
+  private static MockHttpServletRequest request(String apiKey) {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/todos");
+    if (apiKey != null) {
+      request.addHeader("X-API-Key", apiKey);
+    }
+    return request;
+  }
+}
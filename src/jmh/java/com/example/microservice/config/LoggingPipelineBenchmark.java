@@ -0,0 +1,103 @@
+package com.example.microservice.config;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.microservice.config.LogSamplingTurboFilter.SAMPLED;
+
+/**
+ * Cost on the request thread of one per-request log line, as {@code TodoController.getTodoById} writes it.
+ * {@code sync-doubled} is the previous setup (Boot's console pattern appender plus a synchronous JSON appender);
+ * the others are variants of the current {@code logback-spring.xml}. Output goes to a discarding stream, so only
+ * formatting and appender overhead is measured, not the terminal.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggingPipelineBenchmark {
+
+  @Param({"sync-doubled", "async-blocking", "async", "async-sampled"})
+  public String pipeline;
+
+  private LoggerContext context;
+  private Logger logger;
+  private long id;
+
+  @Setup
+  public void setUp() {
+    context = new LoggerContext();
+    logger = context.getLogger("com.example.microservice.controller.TodoController");
+    Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+
+    switch (pipeline) {
+      case "sync-doubled" -> {
+        PatternLayoutEncoder pattern = new PatternLayoutEncoder();
+        pattern.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p 1 --- [%t] %-40.40logger{39} : %m%n");
+        root.addAppender(discarding(pattern));
+        root.addAppender(discarding(json()));
+      }
+      case "async-blocking" -> root.addAppender(async(false));
+      case "async" -> root.addAppender(async(true));
+      case "async-sampled" -> {
+        LogSamplingTurboFilter sampling = new LogSamplingTurboFilter();
+        sampling.setEvery(10);
+        sampling.start();
+        context.addTurboFilter(sampling);
+        root.addAppender(async(true));
+      }
+      default -> throw new IllegalArgumentException(pipeline);
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.stop();
+  }
+
+  @Benchmark
+  public void logRequestLine() {
+    logger.info(SAMPLED, "Fetching todo with id: {}", ++id);
+  }
+
+  private Appender<ILoggingEvent> async(boolean neverBlock) {
+    AsyncAppender async = new AsyncAppender();
+    async.setContext(context);
+    async.setQueueSize(8192);
+    async.setNeverBlock(neverBlock);
+    async.setIncludeCallerData(false);
+    async.addAppender(discarding(json()));
+    async.start();
+    return async;
+  }
+
+  private LogstashEncoder json() {
+    LogstashEncoder encoder = new LogstashEncoder();
+    encoder.setCustomFields("{\"app\":\"java-microservice-k8\"}");
+    return encoder;
+  }
+
+  private Appender<ILoggingEvent> discarding(Encoder<ILoggingEvent> encoder) {
+    encoder.setContext(context);
+    encoder.start();
+    OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+    appender.setContext(context);
+    appender.setEncoder(encoder);
+    appender.setOutputStream(OutputStream.nullOutputStream());
+    appender.start();
+    return appender;
+  }
+}
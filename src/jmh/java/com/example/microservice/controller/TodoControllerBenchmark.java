@@ -0,0 +1,108 @@
+package com.example.microservice.controller;
+
+import com.example.microservice.BenchmarkContext;
+import com.example.microservice.repository.TodoRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Full request path (security filter chain, controller, repository, Jackson) through MockMvc, without the
+ * network and Tomcat connector.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoControllerBenchmark {
+
+  private static final String NEW_TODO = "{\"title\":\"Benchmark TODO\",\"description\":\"Created by JMH\"}";
+
+  @Param("1000")
+  public int rows;
+
+  private ConfigurableApplicationContext context;
+  private MockMvc mockMvc;
+  private List<Long> ids;
+
+  @Setup
+  public void setUp() {
+    context = BenchmarkContext.start();
+    mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+        .apply(springSecurity())
+        .build();
+    ids = BenchmarkContext.seed(context.getBean(TodoRepository.class), rows);
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public byte[] getTodoById() throws Exception {
+    Long id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    return mockMvc.perform(get("/api/todos/{id}", id)
+        .header("X-API-Key", BenchmarkContext.API_KEY))
+        .andReturn().getResponse().getContentAsByteArray();
+  }
+
+  @Benchmark
+  public byte[] getTodosPage() throws Exception {
+    return mockMvc.perform(get("/api/todos").param("limit", "20")
+        .header("X-API-Key", BenchmarkContext.API_KEY))
+        .andReturn().getResponse().getContentAsByteArray();
+  }
+
+  @Benchmark
+  public byte[] getStats() throws Exception {
+    return mockMvc.perform(get("/api/todos/stats")
+        .header("X-API-Key", BenchmarkContext.API_KEY))
+        .andReturn().getResponse().getContentAsByteArray();
+  }
+
+  // What dashboards did before /stats: both filtered lists, counted on the client
+  @Benchmark
+  public int countOnClient() throws Exception {
+    int count = 0;
+    for (String completed : new String[] {"true", "false"}) {
+      count += mockMvc.perform(get("/api/todos").param("completed", completed).param("limit", "1000")
+          .header("X-API-Key", BenchmarkContext.API_KEY))
+          .andReturn().getResponse().getContentAsByteArray().length;
+    }
+    return count;
+  }
+
+  @Benchmark
+  public byte[] createTodo() throws Exception {
+    return mockMvc.perform(post("/api/todos")
+        .header("X-API-Key", BenchmarkContext.API_KEY)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(NEW_TODO))
+        .andReturn().getResponse().getContentAsByteArray();
+  }
+
+  // Every call after the first is a retry of the same create: a replay from TodoIdempotencyStore
+  @Benchmark
+  public byte[] createTodoRetried() throws Exception {
+    return mockMvc.perform(post("/api/todos")
+        .header("X-API-Key", BenchmarkContext.API_KEY)
+        .header("Idempotency-Key", "benchmark-retry")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(NEW_TODO))
+        .andReturn().getResponse().getContentAsByteArray();
+  }
+}
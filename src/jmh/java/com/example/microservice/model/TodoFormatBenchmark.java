@@ -0,0 +1,104 @@
+package com.example.microservice.model;
+
+import com.example.microservice.BenchmarkContext;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Payload size and Jackson CPU per response format: JSON (the current output), Smile and CBOR, for one
+ * {@code Todo} and for a default page of 100. {@code gzipPageOf100} adds what Tomcat's compression costs on top
+ * of serializing the page. Sizes are printed once per format at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoFormatBenchmark {
+
+  private static final TypeReference<List<Todo>> TODO_LIST = new TypeReference<>() {
+  };
+
+  @Param({"json", "smile", "cbor"})
+  public String format;
+
+  private ObjectMapper objectMapper;
+  private Todo todo;
+  private List<Todo> page;
+  private byte[] todoBytes;
+  private byte[] pageBytes;
+
+  @Setup
+  public void setUp() throws IOException {
+    JsonFactory factory = switch (format) {
+      case "json" -> new JsonFactory();
+      case "smile" -> new SmileFactory();
+      case "cbor" -> new CBORFactory();
+      default -> throw new IllegalArgumentException(format);
+    };
+    // Same builder defaults as the MVC converters (JavaTimeModule, ISO dates)
+    objectMapper = Jackson2ObjectMapperBuilder.json().factory(factory).build();
+    page = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      Todo sample = BenchmarkContext.sampleTodo(i);
+      sample.setId((long) i + 1);
+      sample.setVersion(0L);
+      sample.setCreatedAt(LocalDateTime.now());
+      sample.setUpdatedAt(LocalDateTime.now());
+      page.add(sample);
+    }
+    todo = page.get(0);
+    todoBytes = objectMapper.writeValueAsBytes(todo);
+    pageBytes = objectMapper.writeValueAsBytes(page);
+    System.out.printf("%n%s: todo %d B, page of 100 %d B, gzipped %d B%n", format, todoBytes.length,
+        pageBytes.length, gzip(pageBytes).length);
+  }
+
+  @Benchmark
+  public byte[] serializeTodo() throws IOException {
+    return objectMapper.writeValueAsBytes(todo);
+  }
+
+  @Benchmark
+  public Todo deserializeTodo() throws IOException {
+    return objectMapper.readValue(todoBytes, Todo.class);
+  }
+
+  @Benchmark
+  public byte[] serializePageOf100() throws IOException {
+    return objectMapper.writeValueAsBytes(page);
+  }
+
+  @Benchmark
+  public List<Todo> deserializePageOf100() throws IOException {
+    return objectMapper.readValue(pageBytes, TODO_LIST);
+  }
+
+  @Benchmark
+  public byte[] gzipPageOf100() throws IOException {
+    return gzip(objectMapper.writeValueAsBytes(page));
+  }
+
+  // Tomcat's compression is a GZIPOutputStream at the default level
+  private static byte[] gzip(byte[] bytes) throws IOException {
+    ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 4);
+    try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+      out.write(bytes);
+    }
+    return compressed.toByteArray();
+  }
+}
@@ -0,0 +1,68 @@
+package com.example.microservice.model;
+
+import com.example.microservice.BenchmarkContext;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoJsonBenchmark {
+
+  private static final TypeReference<List<Todo>> TODO_LIST = new TypeReference<>() {
+  };
+
+  private ObjectMapper objectMapper;
+  private Todo todo;
+  private List<Todo> page;
+  private byte[] todoJson;
+  private byte[] pageJson;
+
+  @Setup
+  public void setUp() throws IOException {
+    // Same defaults Spring Boot applies to the MVC ObjectMapper (JavaTimeModule, ISO dates)
+    objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    page = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      Todo sample = BenchmarkContext.sampleTodo(i);
+      sample.setId((long) i + 1);
+      sample.setCreatedAt(LocalDateTime.now());
+      sample.setUpdatedAt(LocalDateTime.now());
+      page.add(sample);
+    }
+    todo = page.get(0);
+    todoJson = objectMapper.writeValueAsBytes(todo);
+    pageJson = objectMapper.writeValueAsBytes(page);
+  }
+
+  @Benchmark
+  public byte[] serializeTodo() throws IOException {
+    return objectMapper.writeValueAsBytes(todo);
+  }
+
+  @Benchmark
+  public Todo deserializeTodo() throws IOException {
+    return objectMapper.readValue(todoJson, Todo.class);
+  }
+
+  @Benchmark
+  public byte[] serializePageOf100() throws IOException {
+    return objectMapper.writeValueAsBytes(page);
+  }
+
+  @Benchmark
+  public List<Todo> deserializePageOf100() throws IOException {
+    return objectMapper.readValue(pageJson, TODO_LIST);
+  }
+}
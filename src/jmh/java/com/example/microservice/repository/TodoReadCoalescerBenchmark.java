@@ -0,0 +1,56 @@
+package com.example.microservice.repository;
+
+import com.example.microservice.BenchmarkContext;
+import com.example.microservice.controller.TodoController;
+import com.example.microservice.model.TodoProjection;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A spike of identical {@code GET /api/todos?completed=true} requests, called on {@code TodoController} from
+ * several threads, with the single-flight layer on and off. {@code getExecuted} and {@code getCollapsed} of the
+ * {@link TodoReadCoalescer} after a run tell how many of the calls reached the repository.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class TodoReadCoalescerBenchmark {
+
+  @Param({"false", "true"})
+  public boolean coalescing;
+
+  @Param("2000")
+  public int rows;
+
+  private ConfigurableApplicationContext context;
+  private TodoController controller;
+
+  @Setup
+  public void setUp() {
+    context = BenchmarkContext.start("todos.read-coalescing.enabled=" + coalescing);
+    controller = context.getBean(TodoController.class);
+    BenchmarkContext.seed(context.getBean(TodoRepository.class), rows);
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public ResponseEntity<List<TodoProjection>> getCompletedPage() {
+    return controller.getAllTodos(true, null, 500, null,
+        new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse()));
+  }
+}
@@ -0,0 +1,82 @@
+package com.example.microservice.repository;
+
+import com.example.microservice.BenchmarkContext;
+import com.example.microservice.model.Todo;
+import com.example.microservice.model.TodoSummary;
+import com.example.microservice.model.TodoView;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoRepositoryBenchmark {
+
+  @Param("1000")
+  public int rows;
+
+  private ConfigurableApplicationContext context;
+  private TodoRepository todoRepository;
+  private List<Long> ids;
+
+  @Setup
+  public void setUp() {
+    context = BenchmarkContext.start();
+    todoRepository = context.getBean(TodoRepository.class);
+    ids = BenchmarkContext.seed(todoRepository, rows);
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public Optional<Todo> findById() {
+    return todoRepository.findById(randomId());
+  }
+
+  @Benchmark
+  public List<Todo> findByCompleted() {
+    return todoRepository.findByCompleted(true);
+  }
+
+  @Benchmark
+  public List<Todo> findFirstKeysetPage() {
+    return todoRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 20), Todo.class);
+  }
+
+  // The whole table as one page, as managed entities vs record projections; run with -prof gc to compare allocation
+  @Benchmark
+  public List<Todo> findListPageAsEntities() {
+    return todoRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, rows), Todo.class);
+  }
+
+  @Benchmark
+  public List<TodoView> findListPageAsViews() {
+    return todoRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, rows), TodoView.class);
+  }
+
+  @Benchmark
+  public List<TodoSummary> findListPageAsSummaries() {
+    return todoRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, rows), TodoSummary.class);
+  }
+
+  @Benchmark
+  public Todo save() {
+    return todoRepository.save(BenchmarkContext.sampleTodo(rows));
+  }
+
+  private Long randomId() {
+    return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+  }
+}
@@ -0,0 +1,78 @@
+package com.example.microservice.repository;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one page of search results against table size. {@code rareTerm} and {@code rarePrefix} match ten
+ * todos whatever the size, {@code commonTerm} matches a tenth of them; {@code scan} is what a client filtering
+ * the whole list does, a case-insensitive substring test on every title.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoSearchIndexBenchmark {
+
+  private static final String[] WORDS = {"comprar", "ligar", "enviar", "revisar", "pagar", "agendar", "relatorio",
+      "reuniao", "mercado", "banco", "cliente", "projeto", "contrato", "viagem", "medico", "escola", "conta",
+      "proposta", "orcamento", "entrega"};
+
+  @Param({"10000", "100000"})
+  public int rows;
+
+  private TodoSearchIndex index;
+  private List<String> titles;
+
+  @Setup
+  public void setUp() {
+    index = new TodoSearchIndex(rows);
+    titles = new ArrayList<>(rows);
+    Random random = new Random(42);
+    for (long id = 1; id <= rows; id++) {
+      String title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + id;
+      if (id % (rows / 10) == 0) {
+        title += " fornecedor";
+      }
+      String description = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+      if (id % 10 == 0) {
+        description += " urgente";
+      }
+      index.add(id, title, description);
+      titles.add(title);
+    }
+  }
+
+  @Benchmark
+  public List<TodoSearchIndex.Hit> rareTerm() {
+    return index.search("fornecedor", 0, 20);
+  }
+
+  @Benchmark
+  public List<TodoSearchIndex.Hit> rarePrefix() {
+    return index.search("fornec", 0, 20);
+  }
+
+  @Benchmark
+  public List<TodoSearchIndex.Hit> commonTerm() {
+    return index.search("urgente", 0, 20);
+  }
+
+  @Benchmark
+  public int scan() {
+    int matches = 0;
+    for (String title : titles) {
+      if (title.toLowerCase(Locale.ROOT).contains("fornecedor")) {
+        matches++;
+      }
+    }
+    return matches;
+  }
+}
@@ -0,0 +1,62 @@
+package com.example.microservice.repository;
+
+import com.example.microservice.BenchmarkContext;
+import com.example.microservice.controller.TodoController;
+import com.example.microservice.model.Todo;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@code TodoController.completeTodo} with {@code Prefer: return=minimal} against a file-backed H2, as deployed:
+ * one transaction per call ({@code sync}) versus a journal append and a batched flush ({@code write-behind}).
+ * Completions hit {@code hotRows} todos, so bursts repeat ids as mobile clients do. Run with more threads
+ * ({@code -t}) to see concurrent acknowledgements share journal syncs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoWriteBehindBenchmark {
+
+  @Param({"sync", "write-behind"})
+  public String mode;
+
+  @Param("100")
+  public int hotRows;
+
+  private final Path dir = Path.of("target", "write-behind-bench");
+  private ConfigurableApplicationContext context;
+  private TodoController controller;
+  private List<Long> ids;
+
+  @Setup
+  public void setUp() throws IOException {
+    FileSystemUtils.deleteRecursively(dir);
+    context = BenchmarkContext.start(
+        "spring.datasource.url=jdbc:h2:file:./" + dir.resolve("todos"),
+        "todos.write-behind.enabled=" + mode.equals("write-behind"),
+        "todos.write-behind.journal=" + dir.resolve("completions.journal"));
+    controller = context.getBean(TodoController.class);
+    ids = BenchmarkContext.seed(context.getBean(TodoRepository.class), hotRows);
+  }
+
+  @TearDown
+  public void tearDown() {
+    context.close();
+  }
+
+  @Benchmark
+  public ResponseEntity<Todo> complete() {
+    return controller.completeTodo(ids.get(ThreadLocalRandom.current().nextInt(ids.size())), null, "return=minimal");
+  }
+}
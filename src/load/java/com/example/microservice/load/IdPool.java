@@ -0,0 +1,37 @@
+package com.example.microservice.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Ids of todos known to exist, shared by every in-flight request.
+ */
+final class IdPool {
+
+  private final List<Long> ids = new ArrayList<>();
+
+  synchronized void add(Long id) {
+    ids.add(id);
+  }
+
+  synchronized int size() {
+    return ids.size();
+  }
+
+  synchronized Long random() {
+    return ids.isEmpty() ? null : ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+  }
+
+  synchronized Long removeRandom() {
+    if (ids.isEmpty()) {
+      return null;
+    }
+    int index = ThreadLocalRandom.current().nextInt(ids.size());
+    // Swap-remove keeps removal O(1); order is irrelevant
+    Long id = ids.get(index);
+    ids.set(index, ids.get(ids.size() - 1));
+    ids.remove(ids.size() - 1);
+    return id;
+  }
+}
@@ -0,0 +1,219 @@
+package com.example.microservice.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * Open-model HTTP load driver for a locally running instance of the service.
+ *
+ * <p>Requests are started on a Poisson schedule at the target rate whether or not earlier requests have
+ * completed, and each latency is measured from the scheduled start. Run it through the {@code load-test}
+ * Maven profile; see docs/PERFORMANCE.md for the available options.
+ */
+public final class LoadDriver {
+
+  private static final ObjectMapper JSON = new ObjectMapper();
+
+  private final Settings settings;
+  private final HttpClient client;
+  private final IdPool ids = new IdPool();
+  private final LoadReport report = new LoadReport();
+  private final Operation[] schedule;
+
+  LoadDriver(Settings settings) {
+    this.settings = settings;
+    this.client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(settings.timeout())
+        .build();
+    List<Operation> weighted = new ArrayList<>();
+    settings.mix().forEach((operation, weight) -> {
+      for (int i = 0; i < weight; i++) {
+        weighted.add(operation);
+      }
+    });
+    this.schedule = weighted.toArray(new Operation[0]);
+  }
+
+  public static void main(String[] args) throws Exception {
+    Settings settings = Settings.parse(args);
+    Map<String, Object> result = new LoadDriver(settings).run();
+    System.out.println(JSON.writerWithDefaultPrettyPrinter().writeValueAsString(result.get("operations")));
+    System.out.println("Report written to " + settings.report().toAbsolutePath());
+  }
+
+  Map<String, Object> run() throws IOException, InterruptedException {
+    seed();
+    Instant startedAt = Instant.now();
+    System.out.printf("Driving %s at %.1f req/s for %ss (+%ss warmup), mix %s%n", settings.baseUri(),
+        settings.rps(), settings.duration().toSeconds(), settings.warmup().toSeconds(), settings.mixDescription());
+
+    Semaphore inFlight = new Semaphore(settings.maxInFlight());
+    SplittableRandom random = new SplittableRandom();
+    double meanGapNanos = TimeUnit.SECONDS.toNanos(1) / settings.rps();
+    long start = System.nanoTime();
+    long measureFrom = start + settings.warmup().toNanos();
+    long end = measureFrom + settings.duration().toNanos();
+    boolean measuring = settings.warmup().isZero();
+
+    long next = start;
+    while (true) {
+      // Exponential inter-arrival gaps give Poisson arrivals at the target rate
+      next += (long) (-Math.log(1.0 - random.nextDouble()) * meanGapNanos);
+      if (next >= end) {
+        break;
+      }
+      long wait = next - System.nanoTime();
+      if (wait > 0) {
+        LockSupport.parkNanos(wait);
+      }
+      if (!measuring && next >= measureFrom) {
+        report.reset();
+        measuring = true;
+      }
+
+      Operation operation = schedule[random.nextInt(schedule.length)];
+      HttpRequest request = operation.build(settings.baseUri(), ids, settings.apiKey(), settings.timeout());
+      if (request == null) {
+        report.recordSkipped(operation);
+        continue;
+      }
+      if (!inFlight.tryAcquire()) {
+        report.recordDropped(operation);
+        continue;
+      }
+      send(operation, request, next, inFlight);
+    }
+
+    // Let the tail of in-flight requests finish so slow responses are still counted
+    inFlight.tryAcquire(settings.maxInFlight(), settings.timeout().toMillis() + 1000, TimeUnit.MILLISECONDS);
+    double measuredSeconds = (System.nanoTime() - measureFrom) / 1e9;
+
+    Map<String, Object> result = report.toJson(settings, startedAt, measuredSeconds);
+    report.write(settings.report(), result);
+    return result;
+  }
+
+  private void send(Operation operation, HttpRequest request, long intendedStart, Semaphore inFlight) {
+    client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, error) -> {
+      long latency = System.nanoTime() - intendedStart;
+      inFlight.release();
+      if (error != null) {
+        report.recordFailure(operation, latency);
+        return;
+      }
+      report.recordResponse(operation, response.statusCode(), latency);
+      if (operation == Operation.CREATE_TODO && response.statusCode() == 201) {
+        addId(response.body());
+      }
+    });
+  }
+
+  private void seed() throws IOException, InterruptedException {
+    if (settings.seed() == 0) {
+      return;
+    }
+    StringBuilder body = new StringBuilder("[");
+    for (int i = 0; i < settings.seed(); i++) {
+      body.append(i == 0 ? "" : ",").append("{\"title\":\"Seed TODO ").append(i).append("\"}");
+    }
+    body.append(']');
+    HttpRequest request = HttpRequest.newBuilder(settings.baseUri().resolve("/api/todos/batch"))
+        .header("X-API-Key", settings.apiKey())
+        .header("Content-Type", "application/json")
+        .timeout(Duration.ofMinutes(1))
+        .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+        .build();
+    HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+    if (response.statusCode() != 200) {
+      throw new IllegalStateException("Seeding failed with HTTP " + response.statusCode() + ": " + response.body());
+    }
+    for (JsonNode item : JSON.readTree(response.body())) {
+      if (item.path("status").asInt() == 201) {
+        ids.add(item.get("id").asLong());
+      }
+    }
+    System.out.printf("Seeded %d todos%n", ids.size());
+  }
+
+  private void addId(String body) {
+    try {
+      JsonNode id = JSON.readTree(body).get("id");
+      if (id != null) {
+        ids.add(id.asLong());
+      }
+    } catch (IOException e) {
+      // Not a todo body; nothing to track
+    }
+  }
+
+  record Settings(URI baseUri, String apiKey, double rps, Duration duration, Duration warmup,
+      Map<Operation, Integer> mix, int seed, int maxInFlight, Duration timeout, Path report) {
+
+    static Settings parse(String[] args) {
+      Map<String, String> options = new HashMap<>();
+      for (String arg : args) {
+        if (!arg.startsWith("--") || !arg.contains("=")) {
+          throw new IllegalArgumentException("Expected --name=value but got '" + arg + "'");
+        }
+        int eq = arg.indexOf('=');
+        options.put(arg.substring(2, eq), arg.substring(eq + 1));
+      }
+      return new Settings(
+          URI.create(options.getOrDefault("base-url", "http://localhost:8080")),
+          options.getOrDefault("api-key", "default-dev-key-change-me"),
+          Double.parseDouble(options.getOrDefault("rps", "50")),
+          DurationStyle.detectAndParse(options.getOrDefault("duration", "60s")),
+          DurationStyle.detectAndParse(options.getOrDefault("warmup", "10s")),
+          parseMix(options.getOrDefault("mix", "get:50,list:20,create:10,update:8,complete:5,delete:2,hello:5")),
+          Integer.parseInt(options.getOrDefault("seed", "200")),
+          Integer.parseInt(options.getOrDefault("max-in-flight", "2000")),
+          DurationStyle.detectAndParse(options.getOrDefault("timeout", "10s")),
+          Path.of(options.getOrDefault("report", "target/load-report.json")));
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+      Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+      for (String entry : mix.split(",")) {
+        String[] parts = entry.trim().split(":");
+        if (parts.length != 2) {
+          throw new IllegalArgumentException("Expected operation:weight in mix but got '" + entry + "'");
+        }
+        int weight = Integer.parseInt(parts[1]);
+        if (weight > 0) {
+          weights.put(Operation.fromKey(parts[0]), weight);
+        }
+      }
+      if (weights.isEmpty()) {
+        throw new IllegalArgumentException("The mix must contain at least one operation with a positive weight");
+      }
+      return weights;
+    }
+
+    String mixDescription() {
+      return mix.entrySet().stream()
+          .map(e -> e.getKey().key() + ":" + e.getValue())
+          .collect(Collectors.joining(","));
+    }
+  }
+}
@@ -0,0 +1,139 @@
+package com.example.microservice.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-operation latency histograms and outcome counters. Latencies are recorded in microseconds from the
+ * request's intended start time, so queueing delay on an overloaded server is not hidden.
+ */
+final class LoadReport {
+
+  private static final long MAX_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(5);
+
+  private final Map<Operation, Stats> stats = new EnumMap<>(Operation.class);
+
+  LoadReport() {
+    for (Operation operation : Operation.values()) {
+      stats.put(operation, new Stats());
+    }
+  }
+
+  void recordResponse(Operation operation, int status, long latencyNanos) {
+    Stats s = stats.get(operation);
+    s.latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_TRACKABLE_MICROS));
+    if (status >= 200 && status < 300) {
+      s.ok.increment();
+    } else {
+      s.httpErrors.increment();
+    }
+  }
+
+  void recordFailure(Operation operation, long latencyNanos) {
+    Stats s = stats.get(operation);
+    s.latency.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_TRACKABLE_MICROS));
+    s.failures.increment();
+  }
+
+  void recordSkipped(Operation operation) {
+    stats.get(operation).skipped.increment();
+  }
+
+  void recordDropped(Operation operation) {
+    stats.get(operation).dropped.increment();
+  }
+
+  void reset() {
+    stats.values().forEach(Stats::reset);
+  }
+
+  Map<String, Object> toJson(LoadDriver.Settings settings, Instant startedAt, double measuredSeconds) {
+    Map<String, Object> operations = new LinkedHashMap<>();
+    long sent = 0;
+    for (Map.Entry<Operation, Stats> entry : stats.entrySet()) {
+      Stats s = entry.getValue();
+      long count = s.latency.getTotalCount();
+      if (count == 0 && s.skipped.sum() == 0 && s.dropped.sum() == 0) {
+        continue;
+      }
+      sent += count;
+      Map<String, Object> op = new LinkedHashMap<>();
+      op.put("count", count);
+      op.put("ok", s.ok.sum());
+      op.put("httpErrors", s.httpErrors.sum());
+      op.put("failures", s.failures.sum());
+      op.put("skipped", s.skipped.sum());
+      op.put("dropped", s.dropped.sum());
+      op.put("throughputPerSecond", round(count / measuredSeconds));
+      op.put("latencyMillis", percentiles(s.latency));
+      operations.put(entry.getKey().key(), op);
+    }
+
+    Map<String, Object> report = new LinkedHashMap<>();
+    report.put("startedAt", startedAt.toString());
+    report.put("baseUrl", settings.baseUri().toString());
+    report.put("targetRps", settings.rps());
+    report.put("achievedRps", round(sent / measuredSeconds));
+    report.put("warmupSeconds", settings.warmup().toSeconds());
+    report.put("measuredSeconds", round(measuredSeconds));
+    report.put("mix", settings.mixDescription());
+    report.put("operations", operations);
+    return report;
+  }
+
+  void write(Path path, Map<String, Object> report) throws IOException {
+    if (path.getParent() != null) {
+      Files.createDirectories(path.getParent());
+    }
+    new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(path.toFile(), report);
+  }
+
+  private static Map<String, Object> percentiles(Histogram histogram) {
+    Map<String, Object> latency = new LinkedHashMap<>();
+    latency.put("mean", round(histogram.getMean() / 1000.0));
+    latency.put("p50", millis(histogram, 50.0));
+    latency.put("p90", millis(histogram, 90.0));
+    latency.put("p99", millis(histogram, 99.0));
+    latency.put("p99.9", millis(histogram, 99.9));
+    latency.put("max", round(histogram.getMaxValue() / 1000.0));
+    return latency;
+  }
+
+  private static double millis(Histogram histogram, double percentile) {
+    return round(histogram.getValueAtPercentile(percentile) / 1000.0);
+  }
+
+  private static double round(double value) {
+    return Math.round(value * 1000.0) / 1000.0;
+  }
+
+  private static final class Stats {
+    private final ConcurrentHistogram latency = new ConcurrentHistogram(MAX_TRACKABLE_MICROS, 3);
+    private final LongAdder ok = new LongAdder();
+    private final LongAdder httpErrors = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private void reset() {
+      latency.reset();
+      ok.reset();
+      httpErrors.reset();
+      failures.reset();
+      skipped.reset();
+      dropped.reset();
+    }
+  }
+}
@@ -0,0 +1,106 @@
+package com.example.microservice.load;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The endpoints the driver can replay. Operations that address an existing todo draw an id from the
+ * {@link IdPool}; they are skipped while the pool is empty.
+ */
+enum Operation {
+
+  GET_TODO("get") {
+    @Override
+    HttpRequest.Builder request(URI baseUri, IdPool ids) {
+      Long id = ids.random();
+      return id == null ? null : HttpRequest.newBuilder(baseUri.resolve("/api/todos/" + id)).GET();
+    }
+  },
+
+  LIST_TODOS("list") {
+    @Override
+    HttpRequest.Builder request(URI baseUri, IdPool ids) {
+      return HttpRequest.newBuilder(baseUri.resolve("/api/todos?limit=20")).GET();
+    }
+  },
+
+  CREATE_TODO("create") {
+    @Override
+    HttpRequest.Builder request(URI baseUri, IdPool ids) {
+      return HttpRequest.newBuilder(baseUri.resolve("/api/todos"))
+          .header("Content-Type", "application/json")
+          .POST(HttpRequest.BodyPublishers.ofString(todoJson("Load test TODO", false)));
+    }
+  },
+
+  UPDATE_TODO("update") {
+    @Override
+    HttpRequest.Builder request(URI baseUri, IdPool ids) {
+      Long id = ids.random();
+      return id == null ? null : HttpRequest.newBuilder(baseUri.resolve("/api/todos/" + id))
+          .header("Content-Type", "application/json")
+          .PUT(HttpRequest.BodyPublishers.ofString(todoJson("Updated load test TODO",
+              ThreadLocalRandom.current().nextBoolean())));
+    }
+  },
+
+  COMPLETE_TODO("complete") {
+    @Override
+    HttpRequest.Builder request(URI baseUri, IdPool ids) {
+      Long id = ids.random();
+      return id == null ? null : HttpRequest.newBuilder(baseUri.resolve("/api/todos/" + id + "/complete"))
+          .method("PATCH", HttpRequest.BodyPublishers.noBody());
+    }
+  },
+
+  DELETE_TODO("delete") {
+    @Override
+    HttpRequest.Builder request(URI baseUri, IdPool ids) {
+      Long id = ids.removeRandom();
+      return id == null ? null : HttpRequest.newBuilder(baseUri.resolve("/api/todos/" + id)).DELETE();
+    }
+  },
+
+  HELLO("hello") {
+    @Override
+    HttpRequest.Builder request(URI baseUri, IdPool ids) {
+      return HttpRequest.newBuilder(baseUri.resolve("/api/hello")).GET();
+    }
+  };
+
+  private final String key;
+
+  Operation(String key) {
+    this.key = key;
+  }
+
+  String key() {
+    return key;
+  }
+
+  /**
+   * Returns the request to send, or {@code null} when the operation cannot run right now.
+   */
+  abstract HttpRequest.Builder request(URI baseUri, IdPool ids);
+
+  HttpRequest build(URI baseUri, IdPool ids, String apiKey, Duration timeout) {
+    HttpRequest.Builder builder = request(baseUri, ids);
+    return builder == null ? null : builder.header("X-API-Key", apiKey).timeout(timeout).build();
+  }
+
+  static Operation fromKey(String key) {
+    for (Operation operation : values()) {
+      if (operation.key.equals(key)) {
+        return operation;
+      }
+    }
+    throw new IllegalArgumentException("Unknown operation '" + key + "'");
+  }
+
+  private static String todoJson(String title, boolean completed) {
+    return "{\"title\":\"" + title + "\",\"description\":\"Generated by the load driver\",\"completed\":"
+        + completed + "}";
+  }
+}
@@ -0,0 +1,208 @@
+package com.example.microservice.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold start comparison of the packaged artifacts: starts each variant several times, measures the time from
+ * process launch to the first {@code 200} from {@code /api/health}, then lets it idle and reads its resident
+ * set size, and, after a full GC, the live heap and loaded classes as reported by actuator. Run it through the
+ * {@code startup} Maven profile, which builds the artifacts it compares.
+ */
+public final class StartupBenchmark {
+
+  private static final ObjectMapper JSON = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+  private final Settings settings;
+  private final HttpClient client = HttpClient.newBuilder()
+      .version(HttpClient.Version.HTTP_1_1)
+      .connectTimeout(Duration.ofSeconds(1))
+      .build();
+
+  StartupBenchmark(Settings settings) {
+    this.settings = settings;
+  }
+
+  public static void main(String[] args) throws Exception {
+    Settings settings = Settings.parse(args);
+    Map<String, Object> result = new StartupBenchmark(settings).run();
+    Files.createDirectories(settings.report().toAbsolutePath().getParent());
+    JSON.writeValue(settings.report().toFile(), result);
+    System.out.println(JSON.writeValueAsString(result));
+    System.out.println("Report written to " + settings.report().toAbsolutePath());
+  }
+
+  Map<String, Object> run() throws IOException, InterruptedException {
+    Map<String, Object> result = new LinkedHashMap<>();
+    for (String variant : settings.variants()) {
+      List<String> command = command(variant);
+      System.out.printf("%s: %s%n", variant, String.join(" ", command));
+      List<Long> readyMillis = new ArrayList<>();
+      List<Long> rssKib = new ArrayList<>();
+      List<Long> heapBytes = new ArrayList<>();
+      List<Long> classes = new ArrayList<>();
+      for (int run = 0; run < settings.runs(); run++) {
+        long[] sample = startOnce(command);
+        readyMillis.add(sample[0]);
+        rssKib.add(sample[1]);
+        heapBytes.add(sample[2]);
+        classes.add(sample[3]);
+        System.out.printf("  run %d: ready in %d ms, idle RSS %d MiB, live heap %d MiB, %d classes%n", run + 1,
+            sample[0], sample[1] / 1024, sample[2] >> 20, sample[3]);
+      }
+      Map<String, Object> stats = new LinkedHashMap<>();
+      stats.put("readyMillis", readyMillis);
+      stats.put("readyMillisMedian", median(readyMillis));
+      stats.put("idleRssMiB", median(rssKib) / 1024);
+      stats.put("liveHeapMiB", median(heapBytes) >> 20);
+      stats.put("classesLoaded", median(classes));
+      result.put(variant, stats);
+    }
+    return result;
+  }
+
+  private List<String> command(String variant) {
+    List<String> command = new ArrayList<>();
+    command.add(settings.java());
+    command.addAll(Arrays.asList(settings.jvmArgs().split(" ")));
+    switch (variant) {
+      case "jar" -> command.addAll(List.of("-jar", settings.execJar().toString()));
+      case "aot" -> command.addAll(List.of("-Dspring.aot.enabled=true", "-jar", settings.jar().toString()));
+      case "aot-cds" -> command.addAll(List.of("-XX:SharedArchiveFile=" + settings.cdsArchive(),
+          "-Dspring.aot.enabled=true", "-jar", settings.jar().toString()));
+      default -> throw new IllegalArgumentException("Unknown variant '" + variant + "', expected jar, aot or aot-cds");
+    }
+    command.add("--server.port=" + settings.port());
+    command.add("--spring.datasource.url=jdbc:h2:mem:startup");
+    command.addAll(Arrays.asList(settings.appArgs().split(" ")));
+    command.removeIf(String::isBlank);
+    return command;
+  }
+
+  private long[] startOnce(List<String> command) throws IOException, InterruptedException {
+    HttpRequest health = HttpRequest.newBuilder(URI.create("http://localhost:" + settings.port() + "/api/health"))
+        .timeout(Duration.ofSeconds(1))
+        .build();
+    long start = System.nanoTime();
+    Process process = new ProcessBuilder(command)
+        .redirectErrorStream(true)
+        .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+        .start();
+    try {
+      long deadline = start + settings.timeout().toNanos();
+      while (true) {
+        if (!process.isAlive()) {
+          throw new IllegalStateException("Process exited with " + process.exitValue() + ": " + command);
+        }
+        if (System.nanoTime() > deadline) {
+          throw new IllegalStateException("Not ready within " + settings.timeout() + ": " + command);
+        }
+        try {
+          if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+            break;
+          }
+        } catch (ConnectException e) {
+          // Not listening yet
+        }
+        Thread.sleep(10);
+      }
+      long readyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+      Thread.sleep(settings.idle().toMillis());
+      long rss = rssKib(process.pid());
+      fullGc(process.pid());
+      return new long[] {readyMillis, rss, metric("jvm.memory.used?tag=area:heap"), metric("jvm.classes.loaded")};
+    } finally {
+      process.destroy();
+      if (!process.waitFor(30, TimeUnit.SECONDS)) {
+        process.destroyForcibly().waitFor();
+      }
+    }
+  }
+
+  private void fullGc(long pid) throws IOException, InterruptedException {
+    String java = settings.java();
+    String jcmd = java.contains("/") ? Path.of(java).resolveSibling("jcmd").toString() : "jcmd";
+    new ProcessBuilder(jcmd, Long.toString(pid), "GC.run")
+        .redirectErrorStream(true)
+        .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+        .start()
+        .waitFor(30, TimeUnit.SECONDS);
+  }
+
+  private long metric(String name) throws IOException, InterruptedException {
+    HttpRequest request = HttpRequest.newBuilder(
+            URI.create("http://localhost:" + settings.port() + "/actuator/metrics/" + name))
+        .timeout(Duration.ofSeconds(5))
+        .build();
+    HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+    if (response.statusCode() != 200) {
+      return -1;
+    }
+    return JSON.readTree(response.body()).at("/measurements/0/value").asLong(-1);
+  }
+
+  // Linux only; -1 elsewhere
+  private static long rssKib(long pid) throws IOException {
+    Path status = Path.of("/proc", Long.toString(pid), "status");
+    if (!Files.exists(status)) {
+      return -1;
+    }
+    for (String line : Files.readAllLines(status)) {
+      if (line.startsWith("VmRSS:")) {
+        return Long.parseLong(line.replaceAll("[^0-9]", ""));
+      }
+    }
+    return -1;
+  }
+
+  private static long median(List<Long> values) {
+    List<Long> sorted = values.stream().sorted().toList();
+    return sorted.get(sorted.size() / 2);
+  }
+
+  record Settings(String java, String jvmArgs, String appArgs, List<String> variants, int runs, int port,
+      Duration idle, Duration timeout, Path execJar, Path jar, Path cdsArchive, Path report) {
+
+    static Settings parse(String[] args) {
+      Map<String, String> options = new HashMap<>();
+      for (String arg : args) {
+        if (!arg.startsWith("--") || !arg.contains("=")) {
+          throw new IllegalArgumentException("Expected --name=value but got '" + arg + "'");
+        }
+        int eq = arg.indexOf('=');
+        options.put(arg.substring(2, eq), arg.substring(eq + 1));
+      }
+      return new Settings(
+          options.getOrDefault("java", "java"),
+          options.getOrDefault("jvm-args", ""),
+          options.getOrDefault("app-args", ""),
+          List.of(options.getOrDefault("variants", "jar,aot,aot-cds").split(",")),
+          Integer.parseInt(options.getOrDefault("runs", "5")),
+          Integer.parseInt(options.getOrDefault("port", "18081")),
+          DurationStyle.detectAndParse(options.getOrDefault("idle", "5s")),
+          DurationStyle.detectAndParse(options.getOrDefault("timeout", "120s")),
+          Path.of(options.getOrDefault("exec-jar", "target/app-exec.jar")),
+          Path.of(options.getOrDefault("jar", "target/app.jar")),
+          Path.of(options.getOrDefault("cds-archive", "target/app.jsa")),
+          Path.of(options.getOrDefault("report", "target/startup-report.json")));
+    }
+  }
+}
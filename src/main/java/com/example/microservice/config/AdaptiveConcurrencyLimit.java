@@ -0,0 +1,99 @@
+package com.example.microservice.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrency limit that follows observed latency (AIMD). A response slower than the latency threshold cuts
+ * the limit by the backoff ratio, at most once per threshold interval so one slow burst is not counted many
+ * times; a timely response while at least half the limit was in use raises it by one. Admission is a CAS on
+ * the in-flight counter; a request may only take up to {@code share} of the limit, which is how lower
+ * priority work is shed first.
+ */
+public final class AdaptiveConcurrencyLimit {
+
+  private final int minLimit;
+  private final int maxLimit;
+  private final long latencyThresholdNanos;
+  private final double backoffRatio;
+  private final LongSupplier nanoClock;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private double limit;
+  private volatile int currentLimit;
+  private long lastDecrease;
+
+  public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long latencyThresholdNanos,
+      double backoffRatio) {
+    this(initialLimit, minLimit, maxLimit, latencyThresholdNanos, backoffRatio, System::nanoTime);
+  }
+
+  AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long latencyThresholdNanos,
+      double backoffRatio, LongSupplier nanoClock) {
+    if (minLimit < 1 || maxLimit < minLimit || backoffRatio <= 0 || backoffRatio >= 1) {
+      throw new IllegalArgumentException("Concurrency limit needs 1 <= min <= max and a backoff ratio in (0, 1)");
+    }
+    this.minLimit = minLimit;
+    this.maxLimit = maxLimit;
+    this.latencyThresholdNanos = latencyThresholdNanos;
+    this.backoffRatio = backoffRatio;
+    this.nanoClock = nanoClock;
+    this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+    this.currentLimit = (int) limit;
+    this.lastDecrease = nanoClock.getAsLong() - latencyThresholdNanos;
+  }
+
+  /**
+   * Takes a slot if fewer than {@code share} of the limit are in use. Returns false when the request must be
+   * shed; otherwise the caller reads its start from {@link #nanoTime()} and hands it to
+   * {@link #release(long, boolean)}.
+   */
+  public boolean tryAcquire(double share) {
+    int allowed = Math.max(1, (int) (currentLimit * share));
+    int current;
+    do {
+      current = inFlight.get();
+      if (current >= allowed) {
+        return false;
+      }
+    } while (!inFlight.compareAndSet(current, current + 1));
+    return true;
+  }
+
+  // Like System.nanoTime(), only differences between readings mean anything, and a reading may be negative
+  public long nanoTime() {
+    return nanoClock.getAsLong();
+  }
+
+  /**
+   * Frees the slot taken at {@code startNanos}. With {@code sample} false (e.g. a response that went async)
+   * the elapsed time says nothing about the backend and the limit is left alone.
+   */
+  public void release(long startNanos, boolean sample) {
+    int before = inFlight.getAndDecrement();
+    if (sample) {
+      long now = nanoClock.getAsLong();
+      adjust(now - startNanos, before, now);
+    }
+  }
+
+  private synchronized void adjust(long latencyNanos, int inFlightAtEnd, long now) {
+    if (latencyNanos > latencyThresholdNanos) {
+      if (now - lastDecrease >= latencyThresholdNanos) {
+        limit = Math.max(minLimit, limit * backoffRatio);
+        lastDecrease = now;
+      }
+    } else if (inFlightAtEnd * 2 >= limit) {
+      limit = Math.min(maxLimit, limit + 1);
+    }
+    currentLimit = (int) limit;
+  }
+
+  public int getLimit() {
+    return currentLimit;
+  }
+
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+}
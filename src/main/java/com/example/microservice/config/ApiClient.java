@@ -0,0 +1,101 @@
+package com.example.microservice.config;
+
+import org.springframework.security.core.Authentication;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One API client with its own request rate ({@link TokenBucket}) and cap on requests in flight. A limit of 0
+ * disables it. Counters are plain atomics read by the metrics binder in {@link SecurityConfig}. The key given
+ * here is the configured one; {@link ApiClients} may replace it at runtime from a keys file.
+ */
+public final class ApiClient {
+
+  private static final long CONCURRENCY_RETRY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  private final String name;
+  private final String key;
+  private final ApiKeyAuthentication authentication;
+  private final TokenBucket bucket;
+  private final int maxInFlight;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final LongAdder admitted = new LongAdder();
+  private final LongAdder rateLimited = new LongAdder();
+  private final LongAdder concurrencyLimited = new LongAdder();
+
+  public ApiClient(String name, String key, double requestsPerSecond, int burst, int maxInFlight) {
+    this.name = name;
+    this.key = key;
+    this.authentication = new ApiKeyAuthentication(name);
+    this.bucket = requestsPerSecond > 0 ? new TokenBucket(requestsPerSecond, burst) : null;
+    this.maxInFlight = maxInFlight;
+  }
+
+  /**
+   * Admits one request. Returns 0 when admitted, and the caller must then {@link #release()}; otherwise the
+   * nanoseconds the client should wait before retrying.
+   */
+  public long tryAdmit() {
+    if (maxInFlight > 0 && !enter()) {
+      concurrencyLimited.increment();
+      return CONCURRENCY_RETRY_NANOS;
+    }
+    long wait = bucket != null ? bucket.tryAcquire() : 0;
+    if (wait > 0) {
+      if (maxInFlight > 0) {
+        inFlight.decrementAndGet();
+      }
+      rateLimited.increment();
+      return wait;
+    }
+    admitted.increment();
+    return 0;
+  }
+
+  public void release() {
+    if (maxInFlight > 0) {
+      inFlight.decrementAndGet();
+    }
+  }
+
+  private boolean enter() {
+    int current;
+    do {
+      current = inFlight.get();
+      if (current >= maxInFlight) {
+        return false;
+      }
+    } while (!inFlight.compareAndSet(current, current + 1));
+    return true;
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  String getKey() {
+    return key;
+  }
+
+  Authentication getAuthentication() {
+    return authentication;
+  }
+
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  public long getAdmitted() {
+    return admitted.sum();
+  }
+
+  public long getRateLimited() {
+    return rateLimited.sum();
+  }
+
+  public long getConcurrencyLimited() {
+    return concurrencyLimited.sum();
+  }
+}
@@ -0,0 +1,177 @@
+package com.example.microservice.config;
+
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.util.StringUtils;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The API keys this service accepts. {@code api.key} is the {@code default} client; more clients come from
+ * {@code api.clients.<name>.*}. Any limit a client leaves out falls back to {@code api.rate-limit.*}.
+ * <p>
+ * Keys are kept only as SHA-256 digests. A presented key is hashed and compared with every digest in constant
+ * time, so neither a mismatch position nor the number of keys tried shows in the response time. The keys of a
+ * client can be replaced at runtime with {@link #rotate}; clients, their limits and counters stay.
+ */
+public final class ApiClients {
+
+  static final String DEFAULT_CLIENT = "default";
+  static final int MAX_KEY_LENGTH = 256;
+  // Reused per thread so the hot path allocates nothing; on virtual threads each request builds its own
+  private static final ThreadLocal<KeyHasher> HASHERS = ThreadLocal.withInitial(KeyHasher::new);
+
+  record Limits(Double requestsPerSecond, Integer burst, Integer maxInFlight) {
+  }
+
+  record Client(String key, Double requestsPerSecond, Integer burst, Integer maxInFlight) {
+  }
+
+  private record KeyEntry(byte[] digest, ApiClient client) {
+  }
+
+  private final Map<String, ApiClient> byName;
+  private volatile KeyEntry[] keys;
+
+  public ApiClients(Collection<ApiClient> clients) {
+    Map<String, ApiClient> index = new LinkedHashMap<>();
+    for (ApiClient client : clients) {
+      if (index.putIfAbsent(client.getName(), client) != null) {
+        throw new IllegalStateException("API client '" + client.getName() + "' is defined twice");
+      }
+    }
+    this.byName = index;
+    this.keys = index(Map.of());
+  }
+
+  public static ApiClients from(Environment environment) {
+    Binder binder = Binder.get(environment);
+    Limits defaults = binder.bind("api.rate-limit", Limits.class).orElse(new Limits(null, null, null));
+    double requestsPerSecond = defaults.requestsPerSecond() != null ? defaults.requestsPerSecond() : 200;
+    int burst = defaults.burst() != null ? defaults.burst() : 400;
+    int maxInFlight = defaults.maxInFlight() != null ? defaults.maxInFlight() : 64;
+
+    Map<String, Client> configured = new LinkedHashMap<>();
+    binder.bind("api.key", String.class)
+        .ifBound(key -> configured.put(DEFAULT_CLIENT, new Client(key, null, null, null)));
+    configured.putAll(binder.bind("api.clients", Bindable.mapOf(String.class, Client.class)).orElse(Map.of()));
+
+    // A client without a key is kept: it may get its keys from api.keys-file
+    return new ApiClients(configured.entrySet().stream()
+        .filter(entry -> !entry.getKey().equals(DEFAULT_CLIENT) || StringUtils.hasText(entry.getValue().key()))
+        .map(entry -> {
+          Client client = entry.getValue();
+          return new ApiClient(entry.getKey(), StringUtils.hasText(client.key()) ? client.key() : null,
+              client.requestsPerSecond() != null ? client.requestsPerSecond() : requestsPerSecond,
+              client.burst() != null ? client.burst() : burst,
+              client.maxInFlight() != null ? client.maxInFlight() : maxInFlight);
+        })
+        .toList());
+  }
+
+  public ApiClient find(String key) {
+    if (key.length() > MAX_KEY_LENGTH) {
+      return null;
+    }
+    byte[] digest = HASHERS.get().hash(key);
+    ApiClient found = null;
+    // Every entry is compared, so the time does not depend on which one matches
+    for (KeyEntry entry : keys) {
+      if (MessageDigest.isEqual(entry.digest(), digest)) {
+        found = entry.client();
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Replaces the keys of the listed clients; the others keep their configured key. Listing an old and a new
+   * key for a client lets both work while callers switch over. Nothing changes if a name is unknown or a key
+   * is used twice.
+   */
+  public synchronized void rotate(Map<String, ? extends Collection<String>> keysByClient) {
+    for (String name : keysByClient.keySet()) {
+      if (!byName.containsKey(name)) {
+        throw new IllegalArgumentException("Unknown API client '" + name + "'");
+      }
+    }
+    keys = index(keysByClient);
+  }
+
+  private KeyEntry[] index(Map<String, ? extends Collection<String>> keysByClient) {
+    Map<String, ApiClient> byKey = new LinkedHashMap<>();
+    for (ApiClient client : byName.values()) {
+      Collection<String> clientKeys = keysByClient.containsKey(client.getName())
+          ? keysByClient.get(client.getName())
+          : client.getKey() != null ? List.of(client.getKey()) : List.of();
+      for (String key : clientKeys) {
+        if (!StringUtils.hasText(key) || key.length() > MAX_KEY_LENGTH) {
+          throw new IllegalStateException("API key of client '" + client.getName() + "' must be 1 to "
+              + MAX_KEY_LENGTH + " characters");
+        }
+        ApiClient previous = byKey.putIfAbsent(key, client);
+        if (previous != null && previous != client) {
+          throw new IllegalStateException("API key of client '" + client.getName() + "' is already in use");
+        }
+      }
+    }
+    return byKey.entrySet().stream()
+        .map(entry -> new KeyEntry(HASHERS.get().hash(entry.getKey()).clone(), entry.getValue()))
+        .toArray(KeyEntry[]::new);
+  }
+
+  public Collection<ApiClient> all() {
+    return Collections.unmodifiableCollection(byName.values());
+  }
+
+  private static final class KeyHasher {
+
+    private final MessageDigest sha256;
+    private final byte[] input = new byte[MAX_KEY_LENGTH * 3];
+    private final byte[] digest;
+
+    KeyHasher() {
+      try {
+        sha256 = MessageDigest.getInstance("SHA-256");
+      } catch (NoSuchAlgorithmException e) {
+        throw new IllegalStateException(e);
+      }
+      digest = new byte[sha256.getDigestLength()];
+    }
+
+    // UTF-8 encoded by hand (surrogates one at a time, which is fine as both sides hash the same way), so a
+    // typical ASCII key fits one SHA-256 block and nothing is allocated. Returns the shared output buffer
+    byte[] hash(String key) {
+      int length = key.length();
+      int n = 0;
+      for (int i = 0; i < length; i++) {
+        char c = key.charAt(i);
+        if (c < 0x80) {
+          input[n++] = (byte) c;
+        } else if (c < 0x800) {
+          input[n++] = (byte) (0xC0 | c >>> 6);
+          input[n++] = (byte) (0x80 | c & 0x3F);
+        } else {
+          input[n++] = (byte) (0xE0 | c >>> 12);
+          input[n++] = (byte) (0x80 | c >>> 6 & 0x3F);
+          input[n++] = (byte) (0x80 | c & 0x3F);
+        }
+      }
+      sha256.update(input, 0, n);
+      try {
+        sha256.digest(digest, 0, digest.length);
+      } catch (DigestException e) {
+        throw new IllegalStateException(e);
+      }
+      return digest;
+    }
+  }
+}
@@ -4,20 +4,64 @@ import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Collections;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
 
 public class ApiKeyAuthFilter extends OncePerRequestFilter {
 
   private static final String API_KEY_HEADER = "X-API-Key";
-  private final String validApiKey;
+  private static final String ALREADY_FILTERED = ApiKeyAuthFilter.class.getName() + ".FILTERED";
+  private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+  private final ApiClients clients;
+  private final String[] publicPaths;
+  private final String[] publicPrefixes;
 
-  public ApiKeyAuthFilter(String validApiKey) {
-    this.validApiKey = validApiKey;
+  /**
+   * @param publicPaths the {@code permitAll} patterns of the security chain, in the same syntax: {@code /x/**}
+   *     matches {@code /x} and everything below it, any other pattern only itself. Requests to them are neither
+   *     authenticated nor counted against a key's limits
+   */
+  public ApiKeyAuthFilter(ApiClients clients, String... publicPaths) {
+    this.clients = clients;
+    this.publicPaths = Arrays.stream(publicPaths).map(path -> path.endsWith("/**")
+        ? path.substring(0, path.length() - 3) : path).toArray(String[]::new);
+    this.publicPrefixes = Arrays.stream(publicPaths).filter(path -> path.endsWith("/**"))
+        .map(path -> path.substring(0, path.length() - 2)).toArray(String[]::new);
+  }
+
+  // Skipping can only cost a request its authentication, never grant access: authorization matches paths on its own
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    String path = request.getRequestURI().substring(request.getContextPath().length());
+    for (String publicPath : publicPaths) {
+      if (path.equals(publicPath)) {
+        return true;
+      }
+    }
+    for (String prefix : publicPrefixes) {
+      if (path.startsWith(prefix)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // The filter is not a registered bean, so the default would build this name on every request
+  @Override
+  protected String getAlreadyFilteredAttributeName() {
+    return ALREADY_FILTERED;
+  }
+
+  // Streaming responses complete on an async dispatch, which Spring Security authorizes again
+  @Override
+  protected boolean shouldNotFilterAsyncDispatch() {
+    return false;
   }
 
   @Override
@@ -25,13 +69,37 @@ public class ApiKeyAuthFilter extends OncePerRequestFilter {
       throws ServletException, IOException {
 
     String apiKey = request.getHeader(API_KEY_HEADER);
+    ApiClient client = apiKey != null ? clients.find(apiKey) : null;
 
-    if (apiKey != null && apiKey.equals(validApiKey)) {
-      UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken("api-user", null,
-          Collections.emptyList());
-      SecurityContextHolder.getContext().setAuthentication(authentication);
+    if (client == null) {
+      filterChain.doFilter(request, response);
+      return;
     }
 
-    filterChain.doFilter(request, response);
+    // The request was admitted (and counted) on its initial dispatch
+    if (isAsyncDispatch(request)) {
+      authenticate(client);
+      filterChain.doFilter(request, response);
+      return;
+    }
+
+    long retryAfterNanos = client.tryAdmit();
+    if (retryAfterNanos > 0) {
+      response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+      response.setHeader(HttpHeaders.RETRY_AFTER,
+          Long.toString((retryAfterNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND));
+      return;
+    }
+
+    try {
+      authenticate(client);
+      filterChain.doFilter(request, response);
+    } finally {
+      client.release();
+    }
+  }
+
+  private static void authenticate(ApiClient client) {
+    SecurityContextHolder.getContext().setAuthentication(client.getAuthentication());
   }
 }
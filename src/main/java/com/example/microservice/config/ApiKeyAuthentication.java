@@ -0,0 +1,40 @@
+package com.example.microservice.config;
+
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+
+import java.util.List;
+
+/**
+ * The authentication of one {@link ApiClient}, built once and shared by all of its requests, so it must not
+ * change: it is always authenticated, carries no credentials and takes no details.
+ */
+final class ApiKeyAuthentication extends AbstractAuthenticationToken {
+
+  private final String client;
+
+  ApiKeyAuthentication(String client) {
+    super(List.of());
+    this.client = client;
+    super.setAuthenticated(true);
+  }
+
+  @Override
+  public Object getPrincipal() {
+    return client;
+  }
+
+  @Override
+  public Object getCredentials() {
+    return null;
+  }
+
+  @Override
+  public void setAuthenticated(boolean authenticated) {
+    throw new UnsupportedOperationException("Shared API key authentication is immutable");
+  }
+
+  @Override
+  public void setDetails(Object details) {
+    throw new UnsupportedOperationException("Shared API key authentication is immutable");
+  }
+}
@@ -0,0 +1,102 @@
+package com.example.microservice.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the keys of {@link ApiClients} in step with {@code api.keys-file}, re-read every
+ * {@code api.keys-refresh-interval}. One line per client, {@code <client>=<key>[,<key>...]}; clients must be
+ * configured, and those not listed keep their configured key. A mounted Kubernetes Secret fits: the kubelet
+ * updates the file in place, so keys rotate without a restart by listing the new key next to the old one,
+ * rolling the callers, then dropping the old key.
+ * <p>
+ * A file that cannot be read or applied fails startup; later, it is logged and the previous keys stay. Without a
+ * path nothing is read or scheduled.
+ */
+public final class ApiKeysFile implements DisposableBean {
+
+  private static final Logger logger = LoggerFactory.getLogger(ApiKeysFile.class);
+
+  private final ApiClients clients;
+  private final Path path;
+  private final ScheduledExecutorService scheduler;
+  private byte[] loaded;
+
+  public ApiKeysFile(ApiClients clients, Path path, Duration refreshInterval) {
+    this.clients = clients;
+    this.path = path;
+    if (path == null) {
+      scheduler = null;
+      return;
+    }
+    reload();
+    scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "api-keys-file");
+      thread.setDaemon(true);
+      return thread;
+    });
+    scheduler.scheduleWithFixedDelay(this::reloadQuietly, refreshInterval.toMillis(), refreshInterval.toMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Applies the file if it changed since the last successful load; returns whether it did.
+   */
+  synchronized boolean reload() {
+    byte[] content;
+    try {
+      content = Files.readAllBytes(path);
+    } catch (IOException e) {
+      throw new IllegalStateException("Cannot read API keys file " + path, e);
+    }
+    if (Arrays.equals(content, loaded)) {
+      return false;
+    }
+    Properties properties = new Properties();
+    try {
+      properties.load(new StringReader(new String(content, StandardCharsets.UTF_8)));
+    } catch (IOException | IllegalArgumentException e) {
+      throw new IllegalStateException("Malformed API keys file " + path, e);
+    }
+    Map<String, List<String>> keys = new LinkedHashMap<>();
+    properties.stringPropertyNames().forEach(client -> keys.put(client.trim(),
+        Arrays.stream(properties.getProperty(client).split(",")).map(String::trim).filter(key -> !key.isEmpty())
+            .toList()));
+    clients.rotate(keys);
+    loaded = content;
+    // Never log the keys themselves
+    logger.info("Loaded API keys from {} for clients {}", path, keys.keySet());
+    return true;
+  }
+
+  private void reloadQuietly() {
+    try {
+      reload();
+    } catch (RuntimeException e) {
+      logger.error("Keeping the current API keys: {}", e.getMessage());
+    }
+  }
+
+  @Override
+  public void destroy() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+    }
+  }
+}
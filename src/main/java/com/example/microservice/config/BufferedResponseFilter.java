@@ -0,0 +1,98 @@
+package com.example.microservice.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Ignores flushes while a request is handled synchronously, so a body that fits Tomcat's response buffer is
+ * sent once the request ends, with a {@code Content-Length}. Spring's message converters flush after every body,
+ * which commits the response without a length, and Tomcat compresses any response of unknown length however
+ * small: without this filter {@code server.compression.min-response-size} never applies to them. Bodies larger
+ * than the buffer still go out chunked as it fills. Once a request has gone async (SSE, export) flushes pass
+ * through, since those responses are meant to reach the client piece by piece.
+ */
+public class BufferedResponseFilter extends OncePerRequestFilter {
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+    filterChain.doFilter(request, new BufferedResponse(request, response));
+  }
+
+  private static final class BufferedResponse extends HttpServletResponseWrapper {
+
+    private final HttpServletRequest request;
+    private ServletOutputStream outputStream;
+
+    BufferedResponse(HttpServletRequest request, HttpServletResponse response) {
+      super(response);
+      this.request = request;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+      if (outputStream == null) {
+        outputStream = new BufferedOutputStream(super.getOutputStream(), request);
+      }
+      return outputStream;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+      if (request.isAsyncStarted()) {
+        super.flushBuffer();
+      }
+    }
+  }
+
+  private static final class BufferedOutputStream extends ServletOutputStream {
+
+    private final ServletOutputStream delegate;
+    private final HttpServletRequest request;
+
+    BufferedOutputStream(ServletOutputStream delegate, HttpServletRequest request) {
+      this.delegate = delegate;
+      this.request = request;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+      delegate.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+      delegate.write(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+      if (request.isAsyncStarted()) {
+        delegate.flush();
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      delegate.close();
+    }
+
+    @Override
+    public boolean isReady() {
+      return delegate.isReady();
+    }
+
+    @Override
+    public void setWriteListener(WriteListener writeListener) {
+      delegate.setWriteListener(writeListener);
+    }
+  }
+}
@@ -0,0 +1,61 @@
+package com.example.microservice.config;
+
+import com.example.microservice.repository.TodoChangeTracker;
+import com.example.microservice.repository.TodoReadCoalescer;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+  public static final String TODOS_CACHE = "todos";
+
+  @Value("${todos.cache.spec}")
+  private String todosCacheSpec;
+
+  @Bean
+  public CacheManager cacheManager(TodoChangeTracker changeTracker) {
+    CaffeineCacheManager cacheManager = new CaffeineCacheManager(TODOS_CACHE) {
+      @Override
+      protected Cache adaptCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache) {
+        // Every todo write evicts this cache, which makes its evictions the table's change feed for collection ETags
+        return new ChangeTrackingCache(new EvictionFencedCache(super.adaptCaffeineCache(name, cache)),
+            changeTracker::changed);
+      }
+    };
+    cacheManager.setCacheSpecification(todosCacheSpec);
+    cacheManager.setAllowNullValues(false);
+    // Evictions issued inside a transaction are deferred until it commits, so the change tracker only counts
+    // committed writes. A lookup that read the row before the commit may still put it back after the eviction;
+    // EvictionFencedCache undoes that put, so the next lookup reads the committed row
+    return new TransactionAwareCacheManagerProxy(cacheManager);
+  }
+
+  // Next to the cache's hit/miss meters: reads that led a lookup, shared one, or gave up waiting and ran their own
+  @Bean
+  public MeterBinder readCoalescingMetrics(TodoReadCoalescer readCoalescer) {
+    return registry -> {
+      FunctionCounter.builder("todos.read.coalescing", readCoalescer, TodoReadCoalescer::getExecuted)
+          .description("Todo reads through the single-flight layer")
+          .tag("result", "executed")
+          .register(registry);
+      FunctionCounter.builder("todos.read.coalescing", readCoalescer, TodoReadCoalescer::getCollapsed)
+          .description("Todo reads through the single-flight layer")
+          .tag("result", "collapsed")
+          .register(registry);
+      FunctionCounter.builder("todos.read.coalescing", readCoalescer, TodoReadCoalescer::getTimedOut)
+          .description("Todo reads through the single-flight layer")
+          .tag("result", "timed-out")
+          .register(registry);
+    };
+  }
+}
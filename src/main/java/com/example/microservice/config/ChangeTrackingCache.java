@@ -0,0 +1,76 @@
+package com.example.microservice.config;
+
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Reports every eviction of the wrapped cache as a data change. Reads only populate the cache,
+ * while every write path evicts it, so evictions mark exactly the writes.
+ */
+class ChangeTrackingCache implements Cache {
+
+  private final Cache delegate;
+  private final Runnable onChange;
+
+  ChangeTrackingCache(Cache delegate, Runnable onChange) {
+    this.delegate = delegate;
+    this.onChange = onChange;
+  }
+
+  @Override
+  public String getName() {
+    return delegate.getName();
+  }
+
+  @Override
+  public Object getNativeCache() {
+    return delegate.getNativeCache();
+  }
+
+  @Override
+  public ValueWrapper get(Object key) {
+    return delegate.get(key);
+  }
+
+  @Override
+  public <T> T get(Object key, Class<T> type) {
+    return delegate.get(key, type);
+  }
+
+  @Override
+  public <T> T get(Object key, Callable<T> valueLoader) {
+    return delegate.get(key, valueLoader);
+  }
+
+  @Override
+  public void put(Object key, Object value) {
+    delegate.put(key, value);
+  }
+
+  @Override
+  public void evict(Object key) {
+    delegate.evict(key);
+    onChange.run();
+  }
+
+  @Override
+  public boolean evictIfPresent(Object key) {
+    boolean evicted = delegate.evictIfPresent(key);
+    onChange.run();
+    return evicted;
+  }
+
+  @Override
+  public void clear() {
+    delegate.clear();
+    onChange.run();
+  }
+
+  @Override
+  public boolean invalidate() {
+    boolean invalidated = delegate.invalidate();
+    onChange.run();
+    return invalidated;
+  }
+}
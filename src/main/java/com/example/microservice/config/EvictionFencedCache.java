@@ -0,0 +1,117 @@
+package com.example.microservice.config;
+
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps a read-through lookup from putting back a row that a write evicted while it was loading. A miss remembers
+ * the eviction sequence on the reading thread; the put that follows is undone when its key (or the whole cache)
+ * was evicted since. Without this, a lookup that read the row just before a commit would re-cache the old row
+ * after the commit's eviction, and serve it until the TTL.
+ * <p>
+ * Evictions are recorded per stripe of keys, so an eviction of a neighbouring key can cost a lookup its put,
+ * never its result.
+ */
+class EvictionFencedCache implements Cache {
+
+  private static final int STRIPES = 1024;
+
+  private record Miss(Object key, long sequence) {
+  }
+
+  private final Cache delegate;
+  private final AtomicLong evictions = new AtomicLong();
+  private final AtomicLongArray evictedAt = new AtomicLongArray(STRIPES);
+  private final AtomicLong clearedAt = new AtomicLong();
+  private final ThreadLocal<Miss> missed = new ThreadLocal<>();
+
+  EvictionFencedCache(Cache delegate) {
+    this.delegate = delegate;
+  }
+
+  @Override
+  public String getName() {
+    return delegate.getName();
+  }
+
+  @Override
+  public Object getNativeCache() {
+    return delegate.getNativeCache();
+  }
+
+  @Override
+  public ValueWrapper get(Object key) {
+    ValueWrapper value = delegate.get(key);
+    if (value == null) {
+      missed.set(new Miss(key, evictions.get()));
+    }
+    return value;
+  }
+
+  @Override
+  public <T> T get(Object key, Class<T> type) {
+    return delegate.get(key, type);
+  }
+
+  @Override
+  public <T> T get(Object key, Callable<T> valueLoader) {
+    return delegate.get(key, valueLoader);
+  }
+
+  // Written first and checked after: an eviction either lands after the write and removes it, or was recorded
+  // before the check and the write is undone here
+  @Override
+  public void put(Object key, Object value) {
+    Miss miss = missed.get();
+    missed.remove();
+    delegate.put(key, value);
+    if (miss != null && miss.key().equals(key) && evictedSince(key, miss.sequence())) {
+      delegate.evict(key);
+    }
+  }
+
+  @Override
+  public void evict(Object key) {
+    fence(key);
+    delegate.evict(key);
+  }
+
+  @Override
+  public boolean evictIfPresent(Object key) {
+    fence(key);
+    return delegate.evictIfPresent(key);
+  }
+
+  @Override
+  public void clear() {
+    fenceAll();
+    delegate.clear();
+  }
+
+  @Override
+  public boolean invalidate() {
+    fenceAll();
+    return delegate.invalidate();
+  }
+
+  private boolean evictedSince(Object key, long sequence) {
+    return evictedAt.get(stripe(key)) > sequence || clearedAt.get() > sequence;
+  }
+
+  private void fence(Object key) {
+    long sequence = evictions.incrementAndGet();
+    evictedAt.accumulateAndGet(stripe(key), sequence, Math::max);
+  }
+
+  private void fenceAll() {
+    long sequence = evictions.incrementAndGet();
+    clearedAt.accumulateAndGet(sequence, Math::max);
+  }
+
+  private static int stripe(Object key) {
+    return Math.floorMod(key.hashCode(), STRIPES);
+  }
+}
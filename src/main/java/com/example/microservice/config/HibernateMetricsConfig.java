@@ -0,0 +1,38 @@
+package com.example.microservice.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hibernate statistics ({@code hibernate.generate_statistics}) as meters, under the names hibernate-micrometer
+ * uses. Bound here because that module is not published for the Hibernate version Boot manages.
+ */
+@Configuration
+public class HibernateMetricsConfig {
+
+  @Bean
+  public MeterBinder hibernateMetrics(EntityManagerFactory entityManagerFactory) {
+    Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    return registry -> {
+      FunctionCounter.builder("hibernate.query.executions", statistics, Statistics::getQueryExecutionCount)
+          .description("The number of executed queries")
+          .register(registry);
+      FunctionCounter.builder("hibernate.entities.loads", statistics, Statistics::getEntityLoadCount)
+          .description("The number of entity loads")
+          .register(registry);
+      FunctionCounter.builder("hibernate.statements", statistics, Statistics::getPrepareStatementCount)
+          .description("The number of prepared statements")
+          .tag("status", "prepared")
+          .register(registry);
+      FunctionCounter.builder("hibernate.statements", statistics, Statistics::getCloseStatementCount)
+          .description("The number of closed statements")
+          .tag("status", "closed")
+          .register(registry);
+    };
+  }
+}
@@ -0,0 +1,82 @@
+package com.example.microservice.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sheds requests with 503 once the {@link AdaptiveConcurrencyLimit} is reached, before they queue up behind a
+ * slow database. Bulk writes may only use part of the limit, so they are refused first and reads keep
+ * flowing. Health and actuator endpoints are never shed.
+ */
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+  public enum Priority {
+    READ, WRITE, BULK
+  }
+
+  private final AdaptiveConcurrencyLimit limit;
+  private final double bulkShare;
+  private final LongAdder[] shed = new LongAdder[Priority.values().length];
+
+  public LoadSheddingFilter(AdaptiveConcurrencyLimit limit, double bulkShare) {
+    this.limit = limit;
+    this.bulkShare = bulkShare;
+    for (int i = 0; i < shed.length; i++) {
+      shed[i] = new LongAdder();
+    }
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    String uri = request.getRequestURI();
+    return uri.startsWith("/actuator/") || uri.equals("/api/health");
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+      throws ServletException, IOException {
+
+    Priority priority = priority(request);
+    if (!limit.tryAcquire(priority == Priority.BULK ? bulkShare : 1.0)) {
+      shed[priority.ordinal()].increment();
+      response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+      response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+      return;
+    }
+
+    long start = limit.nanoTime();
+
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      // Bulk requests take as long as their payload, and a streaming response only returns the thread here;
+      // neither duration says anything about how the backend is doing
+      limit.release(start, priority != Priority.BULK && !request.isAsyncStarted());
+    }
+  }
+
+  static Priority priority(HttpServletRequest request) {
+    String method = request.getMethod();
+    if (HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method)) {
+      return Priority.READ;
+    }
+    return request.getRequestURI().endsWith("/batch") ? Priority.BULK : Priority.WRITE;
+  }
+
+  public AdaptiveConcurrencyLimit getLimit() {
+    return limit;
+  }
+
+  public long getShed(Priority priority) {
+    return shed[priority.ordinal()].sum();
+  }
+}
@@ -0,0 +1,38 @@
+package com.example.microservice.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps one in {@code every} INFO-or-lower calls of each log statement marked {@link #SAMPLED}, which is how
+ * hot endpoints tag their per-request line. Counting is per message pattern, so each endpoint is sampled on its
+ * own. Runs as a turbo filter: a sampled-out call returns before Logback allocates a logging event.
+ */
+public class LogSamplingTurboFilter extends TurboFilter {
+
+  public static final Marker SAMPLED = MarkerFactory.getMarker("SAMPLED");
+
+  private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+  private int every = 1;
+
+  public void setEvery(int every) {
+    this.every = every;
+  }
+
+  @Override
+  public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+    if (marker != SAMPLED || every <= 1 || format == null || level.isGreaterOrEqual(Level.WARN)) {
+      return FilterReply.NEUTRAL;
+    }
+    long calls = counters.computeIfAbsent(format, f -> new AtomicLong()).getAndIncrement();
+    return calls % every == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+  }
+}
@@ -1,40 +1,130 @@
 package com.example.microservice.config;
 
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.nio.file.Path;
+import java.time.Duration;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
-  @Value("${api.key}")
-  private String apiKey;
+  // Reachable without a key; ApiKeyAuthFilter skips them too, so probes never touch a key's limits. The other
+  // actuator endpoints (metrics, prometheus) describe routes, clients and internals and need a key like the API
+  static final String[] PUBLIC_PATHS = {
+      "/api/health",
+      "/actuator/health/**",
+      "/actuator/info",
+      "/swagger-ui/**",
+      "/swagger-ui.html",
+      "/v3/api-docs/**",
+      "/api-docs/**",
+      "/openapi.json",
+      "/swagger-resources/**",
+      "/webjars/**"};
+
+  @Bean
+  public ApiClients apiClients(Environment environment) {
+    return ApiClients.from(environment);
+  }
+
+  // Always defined and a no-op without a file: a condition on api.keys-file would be frozen by the AOT build
+  @Bean
+  public ApiKeysFile apiKeysFile(ApiClients apiClients, @Value("${api.keys-file:}") String path,
+      @Value("${api.keys-refresh-interval:30s}") Duration refreshInterval) {
+    return new ApiKeysFile(apiClients, path.isBlank() ? null : Path.of(path), refreshInterval);
+  }
+
+  @Bean
+  public LoadSheddingFilter loadSheddingFilter(
+      @Value("${load-shedding.initial-limit:32}") int initialLimit,
+      @Value("${load-shedding.min-limit:4}") int minLimit,
+      @Value("${load-shedding.max-limit:200}") int maxLimit,
+      @Value("${load-shedding.latency-threshold:500ms}") Duration latencyThreshold,
+      @Value("${load-shedding.backoff-ratio:0.9}") double backoffRatio,
+      @Value("${load-shedding.bulk-share:0.5}") double bulkShare) {
+    return new LoadSheddingFilter(new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit,
+        latencyThreshold.toNanos(), backoffRatio), bulkShare);
+  }
 
+  // The filter runs inside the security chain, after authentication; keep Boot from also registering it globally
   @Bean
-  public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+  public FilterRegistrationBean<LoadSheddingFilter> loadSheddingFilterRegistration(LoadSheddingFilter filter) {
+    FilterRegistrationBean<LoadSheddingFilter> registration = new FilterRegistrationBean<>(filter);
+    registration.setEnabled(false);
+    return registration;
+  }
+
+  @Bean
+  public SecurityFilterChain filterChain(HttpSecurity http, ApiClients apiClients, LoadSheddingFilter loadSheddingFilter,
+      @Value("${load-shedding.enabled:true}") boolean loadSheddingEnabled) throws Exception {
     http
         .csrf(csrf -> csrf.disable())
         .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
         .authorizeHttpRequests(auth -> auth
-            .requestMatchers(
-                "/api/health",
-                "/actuator/**",
-                "/swagger-ui/**",
-                "/swagger-ui.html",
-                "/v3/api-docs/**",
-                "/api-docs/**",
-                "/swagger-resources/**",
-                "/webjars/**")
-            .permitAll()
+            .requestMatchers(PUBLIC_PATHS).permitAll()
             .anyRequest().authenticated())
-        .addFilterBefore(new ApiKeyAuthFilter(apiKey), UsernamePasswordAuthenticationFilter.class);
+        .addFilterBefore(new ApiKeyAuthFilter(apiClients, PUBLIC_PATHS), UsernamePasswordAuthenticationFilter.class);
+    // Per-key 429s come first, so one noisy client cannot use up the shared limit
+    if (loadSheddingEnabled) {
+      http.addFilterAfter(loadSheddingFilter, ApiKeyAuthFilter.class);
+    }
 
     return http.build();
   }
+
+  @Bean
+  public MeterBinder apiClientMetrics(ApiClients apiClients) {
+    return registry -> {
+      for (ApiClient client : apiClients.all()) {
+        FunctionCounter.builder("api.client.requests", client, ApiClient::getAdmitted)
+            .description("Requests admitted past the per-key limits")
+            .tag("client", client.getName())
+            .register(registry);
+        FunctionCounter.builder("api.client.throttled", client, ApiClient::getRateLimited)
+            .description("Requests refused with 429")
+            .tags("client", client.getName(), "reason", "rate")
+            .register(registry);
+        FunctionCounter.builder("api.client.throttled", client, ApiClient::getConcurrencyLimited)
+            .description("Requests refused with 429")
+            .tags("client", client.getName(), "reason", "concurrency")
+            .register(registry);
+        Gauge.builder("api.client.in.flight", client, ApiClient::getInFlight)
+            .description("Requests of this client currently being handled")
+            .tag("client", client.getName())
+            .register(registry);
+      }
+    };
+  }
+
+  @Bean
+  public MeterBinder loadSheddingMetrics(LoadSheddingFilter filter) {
+    return registry -> {
+      AdaptiveConcurrencyLimit limit = filter.getLimit();
+      Gauge.builder("http.server.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+          .description("Current adaptive concurrency limit")
+          .register(registry);
+      Gauge.builder("http.server.concurrency.in.flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+          .description("Requests holding a concurrency slot")
+          .register(registry);
+      for (LoadSheddingFilter.Priority priority : LoadSheddingFilter.Priority.values()) {
+        FunctionCounter.builder("http.server.requests.shed", filter, f -> f.getShed(priority))
+            .description("Requests refused with 503 by the concurrency limit")
+            .tag("priority", priority.name().toLowerCase())
+            .register(registry);
+      }
+    };
+  }
 }
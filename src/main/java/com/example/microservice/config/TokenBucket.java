@@ -0,0 +1,50 @@
+package com.example.microservice.config;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket, kept as a single "theoretical arrival time" (the GCRA form of the algorithm): each
+ * request pushes it one emission interval further, and a request is refused when that would put it more than
+ * {@code burst} intervals ahead of the clock. One {@code AtomicLong} CAS per request, no refill thread.
+ */
+public final class TokenBucket {
+
+  private final long intervalNanos;
+  private final long burstNanos;
+  private final LongSupplier nanoClock;
+  private final AtomicLong arrival;
+
+  public TokenBucket(double tokensPerSecond, int burst) {
+    this(tokensPerSecond, burst, System::nanoTime);
+  }
+
+  TokenBucket(double tokensPerSecond, int burst, LongSupplier nanoClock) {
+    if (tokensPerSecond <= 0 || burst < 1) {
+      throw new IllegalArgumentException("Token bucket needs a positive rate and a burst of at least 1");
+    }
+    this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / tokensPerSecond));
+    this.burstNanos = intervalNanos * burst;
+    this.nanoClock = nanoClock;
+    this.arrival = new AtomicLong(nanoClock.getAsLong());
+  }
+
+  /**
+   * Takes one token. Returns 0 when it was granted, otherwise the nanoseconds until one will be available.
+   */
+  public long tryAcquire() {
+    while (true) {
+      long now = nanoClock.getAsLong();
+      long current = arrival.get();
+      long next = Math.max(current, now) + intervalNanos;
+      long ahead = next - now;
+      if (ahead > burstNanos) {
+        return ahead - burstNanos;
+      }
+      if (arrival.compareAndSet(current, next)) {
+        return 0;
+      }
+    }
+  }
+}
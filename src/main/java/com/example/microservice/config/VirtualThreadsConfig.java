@@ -0,0 +1,61 @@
+package com.example.microservice.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Active when {@code spring.threads.virtual.enabled=true} on a Java 21+ runtime. Boot then runs Tomcat
+ * request handling and the application task executor on virtual threads; this adds the JDBC gate that keeps
+ * an unbounded number of virtual threads from contending for the connection pool.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsConfig {
+
+  @Bean
+  public static BeanPostProcessor dataSourceConcurrencyGate(Environment environment) {
+    Binder binder = Binder.get(environment);
+    int maxConcurrency = binder.bind("db.concurrency-gate.max-concurrency", Integer.class)
+        .orElseGet(() -> binder.bind("spring.datasource.hikari.maximum-pool-size", Integer.class).orElse(10));
+    Duration acquireTimeout = binder.bind("db.concurrency-gate.acquire-timeout", Duration.class)
+        .orElse(Duration.ofSeconds(5));
+
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource && !(bean instanceof ConcurrencyLimitedDataSource)) {
+          return new ConcurrencyLimitedDataSource(dataSource, maxConcurrency, acquireTimeout);
+        }
+        return bean;
+      }
+    };
+  }
+
+  // Hikari's own gauges cannot see callers queued in front of the pool, so the gate reports its saturation too
+  @Bean
+  public MeterBinder dataSourceConcurrencyGateMetrics(DataSource dataSource) {
+    return registry -> {
+      if (dataSource instanceof ConcurrencyLimitedDataSource gate) {
+        Gauge.builder("db.concurrency.gate.permits.max", gate, ConcurrencyLimitedDataSource::getMaxConcurrency)
+            .description("JDBC permits handed out by the concurrency gate")
+            .register(registry);
+        Gauge.builder("db.concurrency.gate.permits.available", gate, ConcurrencyLimitedDataSource::getAvailablePermits)
+            .description("JDBC permits currently free")
+            .register(registry);
+        Gauge.builder("db.concurrency.gate.waiting", gate, ConcurrencyLimitedDataSource::getWaitingThreads)
+            .description("Threads waiting for a JDBC permit")
+            .register(registry);
+      }
+    };
+  }
+}
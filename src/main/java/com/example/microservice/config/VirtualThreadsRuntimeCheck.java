@@ -0,0 +1,35 @@
+package com.example.microservice.config;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fails startup when {@code spring.threads.virtual.enabled=true} on a JVM older than 21. Boot would otherwise
+ * ignore the property, keep platform threads and leave {@link VirtualThreadsConfig} out, without a word.
+ */
+@Component
+public class VirtualThreadsRuntimeCheck implements InitializingBean {
+
+  private final boolean virtualThreadsEnabled;
+  private final int javaVersion;
+
+  @Autowired
+  public VirtualThreadsRuntimeCheck(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreadsEnabled) {
+    this(virtualThreadsEnabled, Runtime.version().feature());
+  }
+
+  VirtualThreadsRuntimeCheck(boolean virtualThreadsEnabled, int javaVersion) {
+    this.virtualThreadsEnabled = virtualThreadsEnabled;
+    this.javaVersion = javaVersion;
+  }
+
+  @Override
+  public void afterPropertiesSet() {
+    if (virtualThreadsEnabled && javaVersion < 21) {
+      throw new IllegalStateException("spring.threads.virtual.enabled=true needs Java 21 or later, but this JVM is "
+          + "Java " + javaVersion + "; run on a Java 21 runtime or set VIRTUAL_THREADS_ENABLED=false");
+    }
+  }
+}
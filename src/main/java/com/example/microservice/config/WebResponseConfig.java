@@ -0,0 +1,62 @@
+package com.example.microservice.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * How API responses are encoded.
+ * <p>
+ * CBOR ({@code application/cbor}) and Smile ({@code application/x-jackson-smile}) next to JSON, for request and
+ * response bodies alike. Both mappers come from Boot's {@link Jackson2ObjectMapperBuilder}, so they carry the same
+ * modules and {@code spring.jackson.*} settings as the JSON one and every format holds the same fields and values.
+ * JSON stays first, so it is what clients get unless they ask for a binary format.
+ * <p>
+ * Compression itself is Tomcat's ({@code server.compression.*}); {@link BufferedResponseFilter} makes its size
+ * threshold apply to the JSON and binary bodies written by Jackson.
+ */
+@Configuration
+public class WebResponseConfig implements WebMvcConfigurer {
+
+  @Bean
+  public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+    return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+  }
+
+  @Bean
+  public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+    return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+  }
+
+  @Bean
+  public FilterRegistrationBean<BufferedResponseFilter> bufferedResponseFilter() {
+    FilterRegistrationBean<BufferedResponseFilter> registration =
+        new FilterRegistrationBean<>(new BufferedResponseFilter());
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+    return registration;
+  }
+
+  @Override
+  public void addInterceptors(InterceptorRegistry registry) {
+    // The body of these endpoints depends on Accept; 304s included, so a client cache keeps one entry per format
+    registry.addInterceptor(new HandlerInterceptor() {
+      @Override
+      public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        return true;
+      }
+    }).addPathPatterns("/api/todos/**");
+  }
+}
@@ -13,6 +13,8 @@ import org.springframework.web.bind.annotation.RestController;
 import java.time.Instant;
 import java.util.Map;
 
+import static com.example.microservice.config.LogSamplingTurboFilter.SAMPLED;
+
 @RestController
 @RequestMapping("/api")
 @Tag(name = "General", description = "General API endpoints")
@@ -27,7 +29,7 @@ public class ApiController {
     Map<String, Object> payload = Map.of(
         "message", "Hello from java-microservice-k8",
         "ts", Instant.now().toString());
-    logger.info("hello endpoint called", payload);
+    logger.info(SAMPLED, "hello endpoint called");
     return ResponseEntity.ok(payload);
   }
 
@@ -0,0 +1,19 @@
+package com.example.microservice.controller;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import org.springframework.http.HttpStatus;
+
+/**
+ * Outcome of one element of a bulk request, reported at the element's position in the request body.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchItemResult(int index, int status, Long id, String error) {
+
+  public static BatchItemResult success(int index, HttpStatus status, Long id) {
+    return new BatchItemResult(index, status.value(), id, null);
+  }
+
+  public static BatchItemResult failure(int index, HttpStatus status, Long id, String error) {
+    return new BatchItemResult(index, status.value(), id, error);
+  }
+}
@@ -0,0 +1,258 @@
+package com.example.microservice.controller;
+
+import com.example.microservice.model.Todo;
+import com.example.microservice.model.TodoView;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * In-process log of todo mutations behind {@code GET /api/todos/changes}.
+ * <p>
+ * The last {@code todos.changes.buffer-size} changes stay in a ring buffer so a reconnecting client can resume
+ * from its {@code Last-Event-ID}. Each subscriber gets a bounded queue drained on the feed's own sender pool
+ * ({@code todos.changes.sender-threads} threads, at most {@code todos.changes.sender-queue-size} waiting drains), so
+ * slow clients never hold threads of the shared task executor. A subscriber that lets its queue fill up, or whose
+ * drain the saturated pool rejects, is disconnected rather than slowing down writers, and resumes on reconnect.
+ * When a resume point has already left the buffer (or predates a restart) the client gets a {@code reset} event
+ * and must re-read the collection.
+ */
+@Component
+public class TodoChangeLog implements DisposableBean {
+
+  private static final Logger logger = LoggerFactory.getLogger(TodoChangeLog.class);
+  static final String RESET = "reset";
+
+  record Change(long sequence, String type, String data) {
+  }
+
+  private final ObjectMapper objectMapper;
+  private final Executor executor;
+  private final int subscriberQueueSize;
+  private final long timeoutMillis;
+  private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+  private final Change[] ring;
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+  private long nextSequence = 1;
+
+  @Autowired
+  public TodoChangeLog(ObjectMapper objectMapper,
+      @Value("${todos.changes.buffer-size:1024}") int bufferSize,
+      @Value("${todos.changes.subscriber-queue-size:256}") int subscriberQueueSize,
+      @Value("${todos.changes.timeout:10m}") Duration timeout,
+      @Value("${todos.changes.sender-threads:4}") int senderThreads,
+      @Value("${todos.changes.sender-queue-size:1024}") int senderQueueSize) {
+    this(objectMapper, senders(senderThreads, senderQueueSize), bufferSize, subscriberQueueSize, timeout);
+  }
+
+  TodoChangeLog(ObjectMapper objectMapper, Executor executor, int bufferSize, int subscriberQueueSize,
+      Duration timeout) {
+    this.objectMapper = objectMapper;
+    this.executor = executor;
+    this.ring = new Change[bufferSize];
+    this.subscriberQueueSize = subscriberQueueSize;
+    this.timeoutMillis = timeout.toMillis();
+  }
+
+  private static ExecutorService senders(int threads, int queueSize) {
+    AtomicInteger count = new AtomicInteger();
+    return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueSize),
+        runnable -> {
+          Thread thread = new Thread(runnable, "todo-changes-" + count.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+  }
+
+  public void created(Todo todo) {
+    publish("created", () -> toJson(TodoView.of(todo)));
+  }
+
+  public void updated(Todo todo) {
+    publish("updated", () -> toJson(TodoView.of(todo)));
+  }
+
+  public void completed(Long id) {
+    publish("completed", () -> toJson(Map.of("id", id)));
+  }
+
+  public void deleted(Long id) {
+    publish("deleted", () -> toJson(Map.of("id", id)));
+  }
+
+  // Inside a transaction the change is published only once it commits, so rolled back writes never reach clients
+  private void publish(String type, Supplier<String> data) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          append(type, data.get());
+        }
+      });
+    } else {
+      append(type, data.get());
+    }
+  }
+
+  private synchronized void append(String type, String data) {
+    Change change = new Change(nextSequence++, type, data);
+    ring[(int) (change.sequence() % ring.length)] = change;
+    for (Subscriber subscriber : subscribers) {
+      if (!subscriber.offer(change)) {
+        drop(subscriber);
+      }
+    }
+  }
+
+  public SseEmitter subscribe(String lastEventId) {
+    Subscriber subscriber = new Subscriber(new SseEmitter(timeoutMillis), subscriberQueueSize);
+    register(subscriber, lastEventId);
+    return subscriber.emitter;
+  }
+
+  synchronized void register(Subscriber subscriber, String lastEventId) {
+    long head = nextSequence - 1;
+    long resumeFrom = resumePoint(lastEventId);
+    long oldest = Math.max(1, nextSequence - ring.length);
+    boolean accepted = true;
+    if (resumeFrom >= 0 && resumeFrom + 1 >= oldest && head - resumeFrom <= subscriberQueueSize) {
+      for (long sequence = resumeFrom + 1; sequence <= head && accepted; sequence++) {
+        accepted = subscriber.offer(ring[(int) (sequence % ring.length)]);
+      }
+    } else if (lastEventId != null) {
+      accepted = subscriber.offer(new Change(head, RESET, "{}"));
+    }
+    if (!accepted) {
+      // Only a rejected first drain gets here, so nothing is being sent yet and the client simply reconnects
+      subscriber.emitter.complete();
+      return;
+    }
+    subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+    subscriber.emitter.onTimeout(() -> subscribers.remove(subscriber));
+    subscriber.emitter.onError(e -> subscribers.remove(subscriber));
+    subscribers.add(subscriber);
+  }
+
+  private long resumePoint(String lastEventId) {
+    if (lastEventId == null || !lastEventId.startsWith(epoch + "-")) {
+      return -1;
+    }
+    try {
+      long sequence = Long.parseLong(lastEventId.substring(epoch.length() + 1));
+      return sequence < nextSequence ? sequence : -1;
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
+  private void drop(Subscriber subscriber) {
+    logger.warn("Dropping change feed subscriber that fell {} events behind", subscriberQueueSize);
+    subscribers.remove(subscriber);
+    subscriber.dropped.set(true);
+    // complete() waits for an in-flight send, so never call it while holding the log's lock
+    try {
+      executor.execute(subscriber.emitter::complete);
+    } catch (RejectedExecutionException e) {
+      logger.warn("Change feed senders are saturated, leaving the dropped subscriber to its timeout");
+    }
+  }
+
+  int subscriberCount() {
+    return subscribers.size();
+  }
+
+  @Override
+  public void destroy() {
+    if (executor instanceof ExecutorService senders) {
+      senders.shutdownNow();
+    }
+  }
+
+  private String toJson(Object value) {
+    try {
+      return objectMapper.writeValueAsString(value);
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  final class Subscriber {
+
+    private final SseEmitter emitter;
+    private final BlockingQueue<Change> queue;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean dropped = new AtomicBoolean();
+
+    Subscriber(SseEmitter emitter, int queueSize) {
+      this.emitter = emitter;
+      this.queue = new ArrayBlockingQueue<>(queueSize);
+    }
+
+    boolean offer(Change change) {
+      if (!queue.offer(change)) {
+        return false;
+      }
+      if (draining.compareAndSet(false, true)) {
+        try {
+          executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+          draining.set(false);
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private void drain() {
+      List<Change> batch = new ArrayList<>();
+      do {
+        queue.drainTo(batch);
+        try {
+          for (Change change : batch) {
+            if (dropped.get()) {
+              return;
+            }
+            emitter.send(SseEmitter.event()
+                .id(epoch + "-" + change.sequence())
+                .name(change.type())
+                .data(change.data()));
+          }
+        } catch (IOException | IllegalStateException e) {
+          // Client went away; the emitter's error callback unregisters it
+          subscribers.remove(this);
+          return;
+        } finally {
+          batch.clear();
+          draining.set(false);
+        }
+      } while (!queue.isEmpty() && draining.compareAndSet(false, true));
+    }
+  }
+}
@@ -1,20 +1,62 @@
 package com.example.microservice.controller;
 
 import com.example.microservice.model.Todo;
+import com.example.microservice.model.TodoProjection;
+import com.example.microservice.model.TodoStats;
+import com.example.microservice.model.TodoSummary;
+import com.example.microservice.model.TodoView;
+import com.example.microservice.repository.TodoChangeTracker;
+import com.example.microservice.repository.TodoCounters;
+import com.example.microservice.repository.TodoIdempotencyStore;
+import com.example.microservice.repository.TodoReadCoalescer;
 import com.example.microservice.repository.TodoRepository;
+import com.example.microservice.repository.TodoSearchIndex;
+import com.example.microservice.repository.TodoWriteBehind;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.security.Principal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static com.example.microservice.config.LogSamplingTurboFilter.SAMPLED;
 
 @RestController
 @RequestMapping("/api/todos")
@@ -23,78 +65,521 @@ import java.util.Optional;
 public class TodoController {
 
   private static final Logger logger = LoggerFactory.getLogger(TodoController.class);
+  static final int DEFAULT_PAGE_SIZE = 100;
+  static final int MAX_PAGE_SIZE = 1000;
+  // Ranking keeps offset + limit hits in memory, so deep search pages are refused
+  static final int MAX_SEARCH_OFFSET = 10_000;
+  static final int MAX_BATCH_SIZE = 10_000;
+  static final int BATCH_CHUNK_SIZE = 500;
+  static final int DEFAULT_STATS_DAYS = 30;
+  static final int MAX_STATS_DAYS = 366;
+  // Clients may keep responses but must revalidate them; private because every response is per API key
+  static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+  static final Set<String> TODO_FIELDS =
+      Set.of("id", "title", "description", "completed", "createdAt", "updatedAt", "version");
+  static final String PREFER = "Prefer";
+  static final String PREFERENCE_APPLIED = "Preference-Applied";
+  static final String RETURN_MINIMAL = "return=minimal";
+  static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+  static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
 
   @Autowired
   private TodoRepository todoRepository;
 
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private TodoChangeTracker changeTracker;
+
+  @Autowired
+  private TodoChangeLog changeLog;
+
+  @Autowired
+  private TodoSearchIndex searchIndex;
+
+  @Autowired
+  private TodoIdempotencyStore idempotencyStore;
+
+  @Autowired
+  private TodoWriteBehind writeBehind;
+
+  @Autowired
+  private TodoReadCoalescer readCoalescer;
+
+  @Autowired
+  private TodoCounters counters;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
   @GetMapping
-  @Operation(summary = "Get all todos", description = "Returns a list of all TODO items")
-  public ResponseEntity<List<Todo>> getAllTodos(
+  @Operation(summary = "Get all todos", description = "Returns one page of TODO items ordered by id. "
+      + "When more items exist, the response carries a Link header with rel=\"next\" pointing at the next page. "
+      + "The ETag changes with any write to the table; If-None-Match/If-Modified-Since answer 304 without a query")
+  public ResponseEntity<List<TodoProjection>> getAllTodos(
+      @Parameter(description = "Filter by completion status") @RequestParam(required = false) Boolean completed,
+      @Parameter(description = "Opaque cursor taken from the previous page's next link") @RequestParam(required = false) String after,
+      @Parameter(description = "Maximum number of items per page (1-" + MAX_PAGE_SIZE + ")") @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+      @Parameter(description = "Comma-separated fields the client needs. Without description the page is read "
+          + "as a summary that skips that column; the response may carry more fields than requested")
+      @RequestParam(required = false) Set<String> fields,
+      WebRequest request) {
+    logger.info(SAMPLED, "Fetching todos, completed filter: {}, after: {}, limit: {}, fields: {}", completed, after, limit, fields);
+    long afterId;
+    try {
+      afterId = after != null ? TodoCursor.decode(after) : 0L;
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+    if (fields != null && !TODO_FIELDS.containsAll(fields)) {
+      return ResponseEntity.badRequest().build();
+    }
+
+    writeBehind.flush();
+    // Read the validator before querying: a write committing in between can only make the ETag stale, never the body
+    String eTag = changeTracker.getETag();
+    if (request.checkNotModified(eTag, changeTracker.getLastModified().toEpochMilli())) {
+      return null;
+    }
+
+    int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    Class<? extends TodoProjection> view = fields == null || fields.contains("description")
+        ? TodoView.class
+        : TodoSummary.class;
+    // Fetch one extra row to find out whether a next page exists without issuing a count query
+    Pageable window = PageRequest.of(0, pageSize + 1);
+    // Identical pages requested at the same moment share one query
+    List<TodoProjection> todos = readCoalescer.read("findPage", () -> Collections.unmodifiableList(completed != null
+        ? todoRepository.findByCompletedAndIdGreaterThanOrderByCompletedAscIdAsc(completed, afterId, window, view)
+        : todoRepository.findByIdGreaterThanOrderByIdAsc(afterId, window, view)), completed, afterId, pageSize, view);
+
+    if (todos.size() <= pageSize) {
+      return ResponseEntity.ok().cacheControl(REVALIDATE).eTag(eTag).body(todos);
+    }
+
+    List<TodoProjection> page = todos.subList(0, pageSize);
+    String nextLink = UriComponentsBuilder.fromPath("/api/todos")
+        .queryParamIfPresent("completed", Optional.ofNullable(completed))
+        .queryParam("after", TodoCursor.encode(page.get(pageSize - 1).id()))
+        .queryParam("limit", pageSize)
+        .queryParamIfPresent("fields", Optional.ofNullable(fields).map(f -> String.join(",", f)))
+        .toUriString();
+    return ResponseEntity.ok()
+        .cacheControl(REVALIDATE)
+        .eTag(eTag)
+        .header(HttpHeaders.LINK, "<" + nextLink + ">; rel=\"next\"")
+        .body(page);
+  }
+
+  @GetMapping("/search")
+  @Operation(summary = "Search todos", description = "Full-text search over title and description. Every word must "
+      + "match, either exactly or as a prefix of an indexed word, case and accents ignored; results are ranked by "
+      + "relevance, title matches first. When more results exist, the response carries a Link header with "
+      + "rel=\"next\" pointing at the next page, up to an offset of " + MAX_SEARCH_OFFSET + ". Cached like the "
+      + "collection, with the same ETag. Answers 503 when the table has outgrown the in-memory index")
+  public ResponseEntity<List<TodoView>> searchTodos(
+      @Parameter(description = "Words to search for") @RequestParam String q,
+      @Parameter(description = "Number of results to skip (0-" + MAX_SEARCH_OFFSET + ")") @RequestParam(defaultValue = "0") int offset,
+      @Parameter(description = "Maximum number of items per page (1-" + MAX_PAGE_SIZE + ")") @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int limit,
+      WebRequest request) {
+    logger.info(SAMPLED, "Searching todos for '{}', offset: {}, limit: {}", q, offset, limit);
+    if (q.isBlank() || offset < 0 || offset > MAX_SEARCH_OFFSET) {
+      return ResponseEntity.badRequest().build();
+    }
+    if (!searchIndex.isAvailable()) {
+      return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+
+    writeBehind.flush();
+    String eTag = changeTracker.getETag();
+    if (request.checkNotModified(eTag, changeTracker.getLastModified().toEpochMilli())) {
+      return null;
+    }
+
+    int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    // One extra hit tells whether a next page exists; only this page's rows are read from the database
+    List<TodoSearchIndex.Hit> hits = searchIndex.search(q, offset, pageSize + 1);
+    List<TodoSearchIndex.Hit> page = hits.subList(0, Math.min(hits.size(), pageSize));
+    Map<Long, TodoView> rows = new HashMap<>();
+    if (!page.isEmpty()) {
+      todoRepository.findByIdIn(page.stream().map(TodoSearchIndex.Hit::id).toList(), TodoView.class)
+          .forEach(todo -> rows.put(todo.id(), todo));
+    }
+    // A row deleted by another instance may still be indexed here; it is left out rather than failing the page
+    List<TodoView> todos = page.stream().map(hit -> rows.get(hit.id())).filter(todo -> todo != null).toList();
+
+    ResponseEntity.BodyBuilder builder = ResponseEntity.ok().cacheControl(REVALIDATE).eTag(eTag);
+    if (hits.size() > pageSize && offset + pageSize <= MAX_SEARCH_OFFSET) {
+      String nextLink = UriComponentsBuilder.fromPath("/api/todos/search")
+          .queryParam("q", q)
+          .queryParam("offset", offset + pageSize)
+          .queryParam("limit", pageSize)
+          .encode()
+          .toUriString();
+      builder.header(HttpHeaders.LINK, "<" + nextLink + ">; rel=\"next\"");
+    }
+    return builder.body(todos);
+  }
+
+  @GetMapping("/stats")
+  @Operation(summary = "Get todo statistics", description = "Returns how many todos exist, completed and open, and "
+      + "how many of them were created on each of the last days, oldest first. Answered from counters kept in "
+      + "memory, without querying the table")
+  public ResponseEntity<TodoStats> getStats(
+      @Parameter(description = "Number of days, ending today, to count creations for (1-" + MAX_STATS_DAYS + ")") @RequestParam(defaultValue = "" + DEFAULT_STATS_DAYS) int days) {
+    logger.info(SAMPLED, "Fetching todo stats for {} days", days);
+    int window = Math.max(1, Math.min(days, MAX_STATS_DAYS));
+    // Acknowledged completions count once they are written
+    writeBehind.flush();
+    LocalDate today = LocalDate.now();
+    return ResponseEntity.ok().cacheControl(REVALIDATE).body(counters.snapshot(today.minusDays(window - 1), today));
+  }
+
+  @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+  @Operation(summary = "Export todos", description = "Streams every TODO item as newline-delimited JSON, ordered by id")
+  public ResponseEntity<StreamingResponseBody> exportTodos(
       @Parameter(description = "Filter by completion status") @RequestParam(required = false) Boolean completed) {
-    logger.info("Fetching all todos, completed filter: {}", completed);
-    List<Todo> todos = completed != null ? todoRepository.findByCompleted(completed) : todoRepository.findAll();
-    return ResponseEntity.ok(todos);
+    logger.info("Exporting todos, completed filter: {}", completed);
+    writeBehind.flush();
+    StreamingResponseBody body = out -> writeNdjson(completed, out);
+    return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+  }
+
+  // One keyset page in memory at a time; rows are records, so nothing accumulates in a persistence context
+  private void writeNdjson(Boolean completed, OutputStream out) {
+    try {
+      JsonGenerator generator = objectMapper.createGenerator(out);
+      generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      generator.setRootValueSeparator(null);
+
+      long afterId = 0L;
+      List<TodoView> page;
+      do {
+        page = todoRepository.findExportPage(completed, afterId);
+        for (TodoView todo : page) {
+          generator.writeObject(todo);
+          generator.writeRaw('\n');
+        }
+        generator.flush();
+        if (!page.isEmpty()) {
+          afterId = page.get(page.size() - 1).id();
+        }
+      } while (page.size() == TodoRepository.EXPORT_PAGE_SIZE);
+      generator.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  @Operation(summary = "Stream todo changes", description = "Server-Sent Events feed of created, updated, completed "
+      + "and deleted todos. Reconnect with Last-Event-ID to resume; a reset event means the resume point is gone "
+      + "and the collection must be read again. Subscribers that fall too far behind are disconnected")
+  public SseEmitter streamChanges(
+      @Parameter(description = "Id of the last event received") @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+    logger.info("Subscribing to todo changes after {}", lastEventId);
+    return changeLog.subscribe(lastEventId);
   }
 
   @GetMapping("/{id}")
-  @Operation(summary = "Get todo by ID", description = "Returns a single TODO item by its ID")
+  @Operation(summary = "Get todo by ID", description = "Returns a single TODO item by its ID. "
+      + "If-None-Match/If-Modified-Since answer 304 without serializing the item")
   public ResponseEntity<Todo> getTodoById(@PathVariable Long id) {
-    logger.info("Fetching todo with id: {}", id);
-    Optional<Todo> todo = todoRepository.findById(id);
-    return todo.map(ResponseEntity::ok)
+    logger.info(SAMPLED, "Fetching todo with id: {}", id);
+    Optional<Todo> todo = readCoalescer.read("findCachedById", () -> todoRepository.findCachedById(id), id)
+        .map(writeBehind::withPendingCompletion);
+    // Spring MVC turns a matching conditional GET into a 304 before the body is written
+    return todo.map(found -> conditional(found).body(found))
         .orElseGet(() -> ResponseEntity.notFound().build());
   }
 
+  private static ResponseEntity.BodyBuilder conditional(Todo todo) {
+    ResponseEntity.BodyBuilder builder = ResponseEntity.ok().cacheControl(REVALIDATE);
+    if (todo.getVersion() != null) {
+      builder.eTag(TodoETag.of(todo.getId(), todo.getVersion()));
+    }
+    if (todo.getUpdatedAt() != null) {
+      builder.lastModified(todo.getUpdatedAt().atZone(ZoneId.systemDefault()));
+    }
+    return builder;
+  }
+
   @PostMapping
-  @Operation(summary = "Create a new todo", description = "Creates a new TODO item")
-  public ResponseEntity<Todo> createTodo(@RequestBody Todo todo) {
+  @Operation(summary = "Create a new todo", description = "Creates a new TODO item. "
+      + "With Idempotency-Key, a retry of the same request returns the TODO created the first time (with "
+      + "Idempotent-Replayed: true) instead of creating another; concurrent retries wait for the first one. "
+      + "Reusing a key with a different body answers 422")
+  public ResponseEntity<Todo> createTodo(@RequestBody Todo todo,
+      @Parameter(description = "Unique value per logical create, at most " + TodoIdempotencyStore.MAX_KEY_LENGTH + " characters, reused on retries") @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+      @Parameter(hidden = true) Principal principal) {
     logger.info("Creating new todo: {}", todo.getTitle());
+    if (idempotencyKey == null) {
+      return ResponseEntity.status(HttpStatus.CREATED).body(create(todo));
+    }
+    if (idempotencyKey.isBlank() || idempotencyKey.length() > TodoIdempotencyStore.MAX_KEY_LENGTH) {
+      return ResponseEntity.badRequest().build();
+    }
+
+    // Keys are per client: two clients picking the same key must not see each other's todos
+    String client = principal != null ? principal.getName() : "";
+    TodoIdempotencyStore.Outcome outcome = idempotencyStore.createOnce(client, idempotencyKey, todo, () -> create(todo));
+    return switch (outcome.status()) {
+      case CREATED -> ResponseEntity.status(HttpStatus.CREATED).body(outcome.todo());
+      case REPLAYED -> ResponseEntity.status(HttpStatus.CREATED).header(IDEMPOTENT_REPLAYED, "true").body(outcome.todo());
+      case MISMATCH -> ResponseEntity.unprocessableEntity().build();
+    };
+  }
+
+  private Todo create(Todo todo) {
+    // A body copied from a GET carries an id; saving it would merge into that row instead of inserting
+    todo.setId(null);
     Todo savedTodo = todoRepository.save(todo);
-    return ResponseEntity.status(HttpStatus.CREATED).body(savedTodo);
+    counters.created(savedTodo);
+    searchIndex.saved(savedTodo.getId(), savedTodo.getTitle(), savedTodo.getDescription());
+    changeLog.created(savedTodo);
+    return savedTodo;
   }
 
-  @PutMapping("/{id}")
-  @Operation(summary = "Update a todo", description = "Updates an existing TODO item")
-  public ResponseEntity<Todo> updateTodo(@PathVariable Long id, @RequestBody Todo todoDetails) {
-    logger.info("Updating todo with id: {}", id);
-    Optional<Todo> optionalTodo = todoRepository.findById(id);
+  @PostMapping("/batch")
+  @Operation(summary = "Create todos in bulk", description = "Creates many TODO items in chunked, JDBC-batched "
+      + "transactions and returns one result per item, in request order")
+  public ResponseEntity<List<BatchItemResult>> createTodos(@RequestBody List<Todo> todos) {
+    logger.info("Creating {} todos in batch", todos.size());
+    if (todos.size() > MAX_BATCH_SIZE) {
+      return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+    }
 
-    if (optionalTodo.isPresent()) {
-      Todo todo = optionalTodo.get();
-      todo.setTitle(todoDetails.getTitle());
-      todo.setDescription(todoDetails.getDescription());
-      todo.setCompleted(todoDetails.getCompleted());
-      Todo updatedTodo = todoRepository.save(todo);
-      return ResponseEntity.ok(updatedTodo);
+    BatchItemResult[] results = new BatchItemResult[todos.size()];
+    List<Integer> accepted = new ArrayList<>(todos.size());
+    for (int i = 0; i < todos.size(); i++) {
+      Todo todo = todos.get(i);
+      if (todo == null || todo.getTitle() == null) {
+        results[i] = BatchItemResult.failure(i, HttpStatus.BAD_REQUEST, null, "title is required");
+      } else {
+        todo.setId(null);
+        accepted.add(i);
+      }
     }
 
-    return ResponseEntity.notFound().build();
+    writeInChunks(accepted, results, chunk -> {
+      for (int i : chunk) {
+        Todo saved = todoRepository.save(todos.get(i));
+        counters.created(saved);
+        searchIndex.saved(saved.getId(), saved.getTitle(), saved.getDescription());
+        changeLog.created(saved);
+        results[i] = BatchItemResult.success(i, HttpStatus.CREATED, saved.getId());
+      }
+    });
+    return ResponseEntity.ok(Arrays.asList(results));
+  }
+
+  @PutMapping("/batch")
+  @Operation(summary = "Update todos in bulk", description = "Updates many existing TODO items, matched by id, in "
+      + "chunked, JDBC-batched transactions and returns one result per item, in request order")
+  public ResponseEntity<List<BatchItemResult>> updateTodos(@RequestBody List<Todo> todos) {
+    logger.info("Updating {} todos in batch", todos.size());
+    if (todos.size() > MAX_BATCH_SIZE) {
+      return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+    }
+
+    writeBehind.flush();
+    BatchItemResult[] results = new BatchItemResult[todos.size()];
+    List<Integer> accepted = new ArrayList<>(todos.size());
+    for (int i = 0; i < todos.size(); i++) {
+      Todo todo = todos.get(i);
+      if (todo == null || todo.getId() == null) {
+        results[i] = BatchItemResult.failure(i, HttpStatus.BAD_REQUEST, null, "id is required");
+      } else if (todo.getTitle() == null) {
+        results[i] = BatchItemResult.failure(i, HttpStatus.BAD_REQUEST, todo.getId(), "title is required");
+      } else {
+        accepted.add(i);
+      }
+    }
+
+    writeInChunks(accepted, results, chunk -> {
+      // One IN query per chunk instead of a findById round trip per item
+      Map<Long, Todo> existing = new HashMap<>();
+      todoRepository.findAllById(chunk.stream().map(i -> todos.get(i).getId()).toList())
+          .forEach(todo -> existing.put(todo.getId(), todo));
+      for (int i : chunk) {
+        Todo todoDetails = todos.get(i);
+        Todo todo = existing.get(todoDetails.getId());
+        if (todo == null) {
+          results[i] = BatchItemResult.failure(i, HttpStatus.NOT_FOUND, todoDetails.getId(), "not found");
+        } else {
+          // Loaded in this transaction and version-checked on flush, so the state it had is the one replaced
+          counters.completionChanged(todo.getCompleted(), todoDetails.getCompleted());
+          todo.setTitle(todoDetails.getTitle());
+          todo.setDescription(todoDetails.getDescription());
+          todo.setCompleted(todoDetails.getCompleted());
+          // Already managed, so this only routes the write through the repository's cache eviction
+          todoRepository.save(todo);
+          searchIndex.saved(todo.getId(), todo.getTitle(), todo.getDescription());
+          changeLog.updated(todo);
+          results[i] = BatchItemResult.success(i, HttpStatus.OK, todo.getId());
+        }
+      }
+    });
+    return ResponseEntity.ok(Arrays.asList(results));
+  }
+
+  @DeleteMapping("/batch")
+  @Operation(summary = "Delete todos in bulk", description = "Deletes the TODO items whose ids are listed in the body "
+      + "and returns one result per id, in request order")
+  public ResponseEntity<List<BatchItemResult>> deleteTodos(@RequestBody List<Long> ids) {
+    logger.info("Deleting {} todos in batch", ids.size());
+    if (ids.size() > MAX_BATCH_SIZE) {
+      return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+    }
+
+    BatchItemResult[] results = new BatchItemResult[ids.size()];
+    List<Integer> accepted = new ArrayList<>(ids.size());
+    for (int i = 0; i < ids.size(); i++) {
+      if (ids.get(i) == null) {
+        results[i] = BatchItemResult.failure(i, HttpStatus.BAD_REQUEST, null, "id is required");
+      } else {
+        accepted.add(i);
+      }
+    }
+
+    writeInChunks(accepted, results, chunk -> {
+      Set<Long> existing = new HashSet<>();
+      for (TodoSummary removed : todoRepository.deleteReturningByIdIn(chunk.stream().map(ids::get).toList())) {
+        existing.add(removed.id());
+        counters.deleted(removed);
+      }
+      existing.forEach(searchIndex::deleted);
+      existing.forEach(changeLog::deleted);
+      for (int i : chunk) {
+        Long id = ids.get(i);
+        results[i] = existing.contains(id)
+            ? BatchItemResult.success(i, HttpStatus.NO_CONTENT, id)
+            : BatchItemResult.failure(i, HttpStatus.NOT_FOUND, id, "not found");
+      }
+    });
+    return ResponseEntity.ok(Arrays.asList(results));
+  }
+
+  // Each chunk commits on its own, so a failing chunk only fails its own items
+  private void writeInChunks(List<Integer> indexes, BatchItemResult[] results, Consumer<List<Integer>> writer) {
+    TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+    for (int from = 0; from < indexes.size(); from += BATCH_CHUNK_SIZE) {
+      List<Integer> chunk = indexes.subList(from, Math.min(from + BATCH_CHUNK_SIZE, indexes.size()));
+      try {
+        transaction.executeWithoutResult(status -> {
+          writer.accept(chunk);
+          entityManager.flush();
+          entityManager.clear();
+        });
+      } catch (RuntimeException e) {
+        logger.warn("Batch chunk of {} items failed", chunk.size(), e);
+        entityManager.clear();
+        for (int i : chunk) {
+          results[i] = BatchItemResult.failure(i, HttpStatus.INTERNAL_SERVER_ERROR, null, "batch chunk failed");
+        }
+      }
+    }
+  }
+
+  @PutMapping("/{id}")
+  @Operation(summary = "Update a todo", description = "Updates an existing TODO item in a single statement. "
+      + "With If-Match, the update only applies to that version and answers 412 otherwise")
+  public ResponseEntity<Todo> updateTodo(@PathVariable Long id, @RequestBody Todo todoDetails,
+      @Parameter(description = "ETag of the version being replaced") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    logger.info("Updating todo with id: {}", id);
+    Long version = TodoETag.expectedVersion(id, ifMatch);
+    // A pending completion must land before this write, or its flush would overwrite it
+    writeBehind.flush();
+    Optional<Boolean> replaced = todoRepository.updateContent(id, todoDetails.getTitle(), todoDetails.getDescription(),
+        todoDetails.getCompleted(), version, LocalDateTime.now());
+    if (replaced.isEmpty()) {
+      return writeMissed(id);
+    }
+    counters.completionChanged(replaced.get(), todoDetails.getCompleted());
+    searchIndex.saved(id, todoDetails.getTitle(), todoDetails.getDescription());
+    return todoRepository.findById(id)
+        .map(todo -> {
+          changeLog.updated(todo);
+          return conditional(todo).body(todo);
+        })
+        .orElseGet(() -> ResponseEntity.notFound().build());
   }
 
   @DeleteMapping("/{id}")
   @Operation(summary = "Delete a todo", description = "Deletes a TODO item by its ID")
   public ResponseEntity<Void> deleteTodo(@PathVariable Long id) {
     logger.info("Deleting todo with id: {}", id);
-    if (todoRepository.existsById(id)) {
-      todoRepository.deleteById(id);
-      return ResponseEntity.noContent().build();
+    Optional<TodoSummary> removed = todoRepository.deleteReturningById(id);
+    if (removed.isEmpty()) {
+      return ResponseEntity.notFound().build();
     }
-    return ResponseEntity.notFound().build();
+    counters.deleted(removed.get());
+    searchIndex.deleted(id);
+    changeLog.deleted(id);
+    return ResponseEntity.noContent().build();
   }
 
   @PatchMapping("/{id}/complete")
-  @Operation(summary = "Mark todo as completed", description = "Marks a TODO item as completed")
-  public ResponseEntity<Todo> completeTodo(@PathVariable Long id) {
+  @Operation(summary = "Mark todo as completed", description = "Marks a TODO item as completed in a single statement. "
+      + "With If-Match, only that version is completed and other versions answer 412. "
+      + "With Prefer: return=minimal the answer is 204 and the item is not read back. "
+      + "In write-behind mode, completions without If-Match are journaled and written in batches")
+  public ResponseEntity<Todo> completeTodo(@PathVariable Long id,
+      @Parameter(description = "ETag of the version being completed") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+      @Parameter(description = "return=minimal skips reading the item back") @RequestHeader(value = PREFER, required = false) String prefer) {
     logger.info("Marking todo {} as completed", id);
-    Optional<Todo> optionalTodo = todoRepository.findById(id);
+    Long version = TodoETag.expectedVersion(id, ifMatch);
+    if (version == null && writeBehind.isEnabled()) {
+      return completeBehind(id, prefer);
+    }
+    writeBehind.flush();
+    Optional<Boolean> replaced = todoRepository.markCompleted(id, version, LocalDateTime.now());
+    if (replaced.isEmpty()) {
+      return writeMissed(id);
+    }
+    counters.completionChanged(replaced.get(), true);
+    changeLog.completed(id);
 
-    if (optionalTodo.isPresent()) {
-      Todo todo = optionalTodo.get();
-      todo.setCompleted(true);
-      Todo updatedTodo = todoRepository.save(todo);
-      return ResponseEntity.ok(updatedTodo);
+    if (prefer != null && prefer.contains(RETURN_MINIMAL)) {
+      ResponseEntity.HeadersBuilder<?> minimal = ResponseEntity.noContent().header(PREFERENCE_APPLIED, RETURN_MINIMAL);
+      if (version != null) {
+        minimal.eTag(TodoETag.of(id, version + 1));
+      }
+      return minimal.build();
     }
+    return todoRepository.findById(id)
+        .map(todo -> conditional(todo).body(todo))
+        .orElseGet(() -> ResponseEntity.notFound().build());
+  }
+
+  // Completing is idempotent and needs no version check, so it can be acknowledged from the journal; the cached
+  // read only serves the 404 and the response body
+  private ResponseEntity<Todo> completeBehind(Long id, String prefer) {
+    Optional<Todo> todo = todoRepository.findCachedById(id);
+    if (todo.isEmpty()) {
+      return ResponseEntity.notFound().build();
+    }
+    writeBehind.complete(id);
+    changeLog.completed(id);
+
+    Todo completed = writeBehind.withPendingCompletion(todo.get());
+    if (prefer != null && prefer.contains(RETURN_MINIMAL)) {
+      return ResponseEntity.noContent()
+          .header(PREFERENCE_APPLIED, RETURN_MINIMAL)
+          .eTag(TodoETag.of(id, completed.getVersion()))
+          .build();
+    }
+    return conditional(completed).body(completed);
+  }
 
-    return ResponseEntity.notFound().build();
+  // Only the failure path pays for the extra query that tells a missing todo from a stale If-Match
+  private <T> ResponseEntity<T> writeMissed(Long id) {
+    return todoRepository.existsById(id)
+        ? ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build()
+        : ResponseEntity.notFound().build();
   }
 }
@@ -0,0 +1,35 @@
+package com.example.microservice.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for paging through todos. Ids are assigned in insertion order, so seeking by id
+ * also walks the table in {@code createdAt} order.
+ */
+public final class TodoCursor {
+
+  private static final String PREFIX = "id:";
+
+  private TodoCursor() {
+  }
+
+  public static String encode(long id) {
+    return Base64.getUrlEncoder().withoutPadding()
+        .encodeToString((PREFIX + id).getBytes(StandardCharsets.US_ASCII));
+  }
+
+  public static long decode(String cursor) {
+    long id;
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII);
+      id = raw.startsWith(PREFIX) ? Long.parseLong(raw.substring(PREFIX.length())) : -1;
+    } catch (IllegalArgumentException e) {
+      id = -1;
+    }
+    if (id < 0) {
+      throw new IllegalArgumentException("Malformed cursor: " + cursor);
+    }
+    return id;
+  }
+}
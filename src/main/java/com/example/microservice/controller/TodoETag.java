@@ -0,0 +1,39 @@
+package com.example.microservice.controller;
+
+/**
+ * Strong entity tags for single todos, built from id and version: {@code "42-3"}.
+ */
+public final class TodoETag {
+
+  /** Version that no row has, used when an If-Match header names no representation of the todo. */
+  static final long NO_MATCH = -1L;
+
+  private TodoETag() {
+  }
+
+  public static String of(Long id, Long version) {
+    return "\"" + id + "-" + version + "\"";
+  }
+
+  /**
+   * Returns the version an If-Match header requires, or {@code null} when the header is absent or {@code *}.
+   * Weak and foreign tags never match, which makes the conditional write fail with 412.
+   */
+  public static Long expectedVersion(Long id, String ifMatch) {
+    if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+      return null;
+    }
+    String prefix = "\"" + id + "-";
+    for (String tag : ifMatch.split(",")) {
+      tag = tag.trim();
+      if (tag.startsWith(prefix) && tag.endsWith("\"") && tag.length() > prefix.length() + 1) {
+        try {
+          return Long.parseLong(tag.substring(prefix.length(), tag.length() - 1));
+        } catch (NumberFormatException e) {
+          // Not one of ours; keep looking
+        }
+      }
+    }
+    return NO_MATCH;
+  }
+}
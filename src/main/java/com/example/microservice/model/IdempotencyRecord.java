@@ -0,0 +1,56 @@
+package com.example.microservice.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * The stored outcome of one {@code POST /api/todos} with an {@code Idempotency-Key}: a fingerprint of the request
+ * and the created todo as JSON, so a retry after a restart gets the same answer.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+    @Index(name = "idx_idempotency_keys_created_at", columnList = "created_at")
+})
+public class IdempotencyRecord {
+
+  // "<client> <key>"
+  @Id
+  @Column(length = 512)
+  private String id;
+
+  @Column(nullable = false, length = 64)
+  private String fingerprint;
+
+  @Lob
+  @Column(nullable = false)
+  private String response;
+
+  @Column(name = "created_at", nullable = false)
+  private LocalDateTime createdAt;
+
+  protected IdempotencyRecord() {
+  }
+
+  public IdempotencyRecord(String id, String fingerprint, String response, LocalDateTime createdAt) {
+    this.id = id;
+    this.fingerprint = fingerprint;
+    this.response = response;
+    this.createdAt = createdAt;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public String getFingerprint() {
+    return fingerprint;
+  }
+
+  public String getResponse() {
+    return response;
+  }
+
+  public LocalDateTime getCreatedAt() {
+    return createdAt;
+  }
+}
@@ -1,14 +1,20 @@
 package com.example.microservice.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "todos")
+@Table(name = "todos", indexes = {
+    @Index(name = "idx_todos_completed_id", columnList = "completed, id"),
+    @Index(name = "idx_todos_created_at", columnList = "created_at")
+})
 public class Todo {
 
+  // Pooled sequence instead of IDENTITY so Hibernate can batch inserts
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "todos_seq")
+  @SequenceGenerator(name = "todos_seq", sequenceName = "todos_seq", allocationSize = 50)
   private Long id;
 
   @Column(nullable = false)
@@ -26,6 +32,12 @@ public class Todo {
   @Column(name = "updated_at")
   private LocalDateTime updatedAt;
 
+  // Assigned by Hibernate and by the single-statement updates in TodoRepository; clients send it back as If-Match
+  @Version
+  @Column(nullable = false)
+  @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+  private Long version;
+
   @PrePersist
   protected void onCreate() {
     createdAt = LocalDateTime.now();
@@ -85,4 +97,12 @@ public class Todo {
   public void setUpdatedAt(LocalDateTime updatedAt) {
     this.updatedAt = updatedAt;
   }
+
+  public Long getVersion() {
+    return version;
+  }
+
+  public void setVersion(Long version) {
+    this.version = version;
+  }
 }
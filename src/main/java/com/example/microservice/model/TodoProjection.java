@@ -0,0 +1,12 @@
+package com.example.microservice.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Read-only view of a todo row, selected column by column instead of loading a managed {@link Todo}.
+ */
+@Schema(oneOf = {TodoView.class, TodoSummary.class})
+public sealed interface TodoProjection permits TodoView, TodoSummary {
+
+  Long id();
+}
@@ -0,0 +1,10 @@
+package com.example.microservice.model;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Counts behind {@code GET /api/todos/stats}: todos by completion, and todos per creation day, oldest day first.
+ */
+public record TodoStats(long total, long completed, long open, Map<LocalDate, Long> createdPerDay) {
+}
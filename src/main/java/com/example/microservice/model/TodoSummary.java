@@ -0,0 +1,10 @@
+package com.example.microservice.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * A todo without its description, the widest column, for listings that do not display it.
+ */
+public record TodoSummary(Long id, String title, Boolean completed,
+    LocalDateTime createdAt, LocalDateTime updatedAt, Long version) implements TodoProjection {
+}
@@ -0,0 +1,15 @@
+package com.example.microservice.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Every column of a todo, serialized exactly like the {@link Todo} entity.
+ */
+public record TodoView(Long id, String title, String description, Boolean completed,
+    LocalDateTime createdAt, LocalDateTime updatedAt, Long version) implements TodoProjection {
+
+  public static TodoView of(Todo todo) {
+    return new TodoView(todo.getId(), todo.getTitle(), todo.getDescription(), todo.getCompleted(),
+        todo.getCreatedAt(), todo.getUpdatedAt(), todo.getVersion());
+  }
+}
@@ -0,0 +1,27 @@
+package com.example.microservice.repository;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Defers in-memory bookkeeping of a write until its transaction commits, so rolled back writes never count.
+ * Outside a transaction the write has already committed and the update runs immediately.
+ */
+final class AfterCommit {
+
+  private AfterCommit() {
+  }
+
+  static void run(Runnable update) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          update.run();
+        }
+      });
+    } else {
+      update.run();
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package com.example.microservice.repository;
+
+import com.example.microservice.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+  Optional<IdempotencyRecord> findByIdAndCreatedAtAfter(String id, LocalDateTime after);
+
+  @Modifying
+  @Transactional
+  @Query("delete from IdempotencyRecord r where r.createdAt < :before")
+  int deleteByCreatedAtBefore(@Param("before") LocalDateTime before);
+}
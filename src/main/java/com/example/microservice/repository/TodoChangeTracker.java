@@ -0,0 +1,38 @@
+package com.example.microservice.repository;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Table-level change counter for the todos table, used as the validator for collection ETags.
+ * <p>
+ * The counter lives in memory and is bumped after every committed write (see
+ * {@link com.example.microservice.config.CacheConfig}), so it assumes this process is the only writer,
+ * as with the single-replica deployment. The start time is part of the ETag so that a restart never
+ * validates a representation served before it.
+ * <p>
+ * The ETag is weak: it says the collection is unchanged, not that the bytes are, so the same tag can stand
+ * for every format and content coding of a list (Tomcat only compresses responses without a strong ETag).
+ */
+@Component
+public class TodoChangeTracker {
+
+  private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+  private final AtomicLong changes = new AtomicLong();
+  private volatile Instant lastModified = Instant.now();
+
+  public void changed() {
+    lastModified = Instant.now();
+    changes.incrementAndGet();
+  }
+
+  public String getETag() {
+    return "W/\"todos-" + epoch + "-" + changes.get() + "\"";
+  }
+
+  public Instant getLastModified() {
+    return lastModified;
+  }
+}
@@ -0,0 +1,166 @@
+package com.example.microservice.repository;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only journal behind {@link TodoWriteBehind}: one {@code <id> <updatedAt>} line per acknowledged
+ * completion, forced to disk before the request is answered. Concurrent appends share one {@code force}
+ * (group commit), so a burst costs a few small file syncs instead of one database commit each.
+ * <p>
+ * Before a flush the current file is rotated to {@code <journal>.flushing} and deleted once that batch has
+ * committed; on startup both files are replayed. A line torn by a crash mid-append is skipped: its request was
+ * never answered.
+ */
+final class TodoCompletionJournal implements AutoCloseable {
+
+  private static final Logger logger = LoggerFactory.getLogger(TodoCompletionJournal.class);
+
+  record Entry(long id, LocalDateTime at) {
+  }
+
+  private final Path path;
+  private final Path flushing;
+  private final Object syncLock = new Object();
+  private FileChannel channel;
+  // Bytes ever appended and ever forced, across rotations
+  private volatile long written;
+  private long synced;
+
+  TodoCompletionJournal(Path path) {
+    this.path = path;
+    this.flushing = path.resolveSibling(path.getFileName() + ".flushing");
+    try {
+      if (path.toAbsolutePath().getParent() != null) {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+      }
+      this.channel = open();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot open write-behind journal " + path, e);
+    }
+  }
+
+  /**
+   * Entries left by a previous run, oldest first: the batch that was being flushed, then the ones after it.
+   */
+  List<Entry> recover() {
+    List<Entry> entries = new ArrayList<>();
+    for (Path file : List.of(flushing, path)) {
+      try {
+        if (Files.exists(file)) {
+          for (String line : Files.readAllLines(file, StandardCharsets.US_ASCII)) {
+            parse(line, entries);
+          }
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException("Cannot read write-behind journal " + file, e);
+      }
+    }
+    return entries;
+  }
+
+  private static void parse(String line, List<Entry> entries) {
+    int space = line.indexOf(' ');
+    try {
+      entries.add(new Entry(Long.parseLong(line.substring(0, space)), LocalDateTime.parse(line.substring(space + 1))));
+    } catch (NumberFormatException | DateTimeParseException | StringIndexOutOfBoundsException e) {
+      logger.warn("Skipping torn write-behind journal line '{}'", line);
+    }
+  }
+
+  /**
+   * Appends one entry and returns the position {@link #sync} must reach for it to be durable.
+   */
+  synchronized long append(long id, LocalDateTime at) {
+    ByteBuffer record = StandardCharsets.US_ASCII.encode(id + " " + at + "\n");
+    try {
+      while (record.hasRemaining()) {
+        written += channel.write(record);
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot append to write-behind journal " + path, e);
+    }
+    return written;
+  }
+
+  void sync(long position) {
+    synchronized (syncLock) {
+      if (synced >= position) {
+        return;
+      }
+      long target = written;
+      try {
+        channel.force(false);
+      } catch (IOException e) {
+        throw new UncheckedIOException("Cannot sync write-behind journal " + path, e);
+      }
+      synced = target;
+    }
+  }
+
+  /**
+   * Closes the current file as {@code <journal>.flushing} and starts an empty one. The caller must keep
+   * appends out while it runs.
+   */
+  synchronized void rotate() {
+    synchronized (syncLock) {
+      try {
+        channel.force(false);
+        channel.close();
+        Files.move(path, flushing, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        channel = open();
+      } catch (IOException e) {
+        throw new UncheckedIOException("Cannot rotate write-behind journal " + path, e);
+      }
+      synced = written;
+    }
+  }
+
+  void discardRotated() {
+    try {
+      Files.deleteIfExists(flushing);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot delete write-behind journal " + flushing, e);
+    }
+  }
+
+  /**
+   * Empties both files once everything they hold is committed.
+   */
+  synchronized void reset() {
+    discardRotated();
+    try {
+      channel.truncate(0);
+      channel.force(false);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Cannot truncate write-behind journal " + path, e);
+    }
+  }
+
+  @Override
+  public synchronized void close() {
+    try {
+      channel.close();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private FileChannel open() throws IOException {
+    return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+  }
+}
@@ -0,0 +1,101 @@
+package com.example.microservice.repository;
+
+import com.example.microservice.model.Todo;
+import com.example.microservice.model.TodoStats;
+import com.example.microservice.model.TodoSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory counts of the todos table, so {@code GET /api/todos/stats} never scans it.
+ * <p>
+ * The counters start from {@code COUNT(*)} queries at startup and from then on follow every committed write of
+ * {@code TodoController} and {@link TodoWriteBehind}: writes that change or remove existing rows return the state
+ * they replaced from the statement itself (see {@link TodoRepository#markCompleted}), so concurrent writers cannot
+ * make a change count twice, and nothing is read or locked before the write. Like {@link TodoChangeTracker}, this
+ * assumes the process is the only writer.
+ * {@link LongAdder}s keep concurrent writers from contending on a single counter.
+ */
+@Component
+public class TodoCounters implements SmartInitializingSingleton {
+
+  private static final Logger logger = LoggerFactory.getLogger(TodoCounters.class);
+
+  private final LongAdder completed = new LongAdder();
+  private final LongAdder open = new LongAdder();
+  private final Map<LocalDate, LongAdder> createdPerDay = new ConcurrentHashMap<>();
+
+  @Autowired
+  private TodoRepository todoRepository;
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    reconcile();
+  }
+
+  /**
+   * Replaces the counters with what the table holds. Only correct while nothing writes to it.
+   */
+  public void reconcile() {
+    completed.reset();
+    open.reset();
+    createdPerDay.clear();
+    for (Object[] row : todoRepository.countByCompleted()) {
+      (Boolean.TRUE.equals(row[0]) ? completed : open).add((Long) row[1]);
+    }
+    for (Object[] row : todoRepository.countByCreatedDay()) {
+      day((LocalDate) row[0]).add((Long) row[1]);
+    }
+    logger.info("Todo counters reconciled: {} completed, {} open", completed.sum(), open.sum());
+  }
+
+  public void created(Todo todo) {
+    AfterCommit.run(() -> add(todo.getCompleted(), todo.getCreatedAt(), 1));
+  }
+
+  public void deleted(TodoSummary before) {
+    AfterCommit.run(() -> add(before.completed(), before.createdAt(), -1));
+  }
+
+  public void completionChanged(Boolean before, Boolean after) {
+    if (Boolean.TRUE.equals(before) == Boolean.TRUE.equals(after)) {
+      return;
+    }
+    AfterCommit.run(() -> {
+      add(after, null, 1);
+      add(before, null, -1);
+    });
+  }
+
+  public TodoStats snapshot(LocalDate from, LocalDate to) {
+    Map<LocalDate, Long> perDay = new LinkedHashMap<>();
+    for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+      LongAdder count = createdPerDay.get(day);
+      perDay.put(day, count != null ? count.sum() : 0L);
+    }
+    long completedCount = completed.sum();
+    long openCount = open.sum();
+    return new TodoStats(completedCount + openCount, completedCount, openCount, perDay);
+  }
+
+  private void add(Boolean isCompleted, LocalDateTime createdAt, long delta) {
+    (Boolean.TRUE.equals(isCompleted) ? completed : open).add(delta);
+    if (createdAt != null) {
+      day(createdAt.toLocalDate()).add(delta);
+    }
+  }
+
+  private LongAdder day(LocalDate day) {
+    return createdPerDay.computeIfAbsent(day, d -> new LongAdder());
+  }
+}
@@ -0,0 +1,246 @@
+package com.example.microservice.repository;
+
+import com.example.microservice.model.IdempotencyRecord;
+import com.example.microservice.model.Todo;
+import com.example.microservice.model.TodoView;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Recent {@code Idempotency-Key}s of {@code POST /api/todos} and the todo each one created, so a retried create
+ * answers with the original todo instead of inserting another row.
+ * <p>
+ * Entries live in a Caffeine cache bounded by {@code max-size} and expired {@code ttl} after they were written;
+ * keys are scoped per API client. A request whose key is already in flight waits for that execution and gets its
+ * result, so concurrent duplicates run the insert once; if that execution fails, one of the waiters runs it
+ * instead. The same key with a different body is reported as a mismatch. With {@code persistent} the outcome is
+ * also written to {@code idempotency_keys}, in the transaction that inserts the todo, so a retry after a restart
+ * is still recognised; the in-memory entry stays in front of it.
+ */
+@Component
+public class TodoIdempotencyStore implements SmartInitializingSingleton, DisposableBean {
+
+  private static final Logger logger = LoggerFactory.getLogger(TodoIdempotencyStore.class);
+  public static final int MAX_KEY_LENGTH = 255;
+
+  public enum Status {
+    CREATED, REPLAYED, MISMATCH
+  }
+
+  public record Outcome(Status status, Todo todo) {
+  }
+
+  private record Entry(String fingerprint, Todo todo) {
+  }
+
+  private final Duration ttl;
+  private final boolean persistent;
+  private final AsyncCache<String, Entry> entries;
+  private ScheduledExecutorService purger;
+
+  @Autowired
+  private IdempotencyRecordRepository recordRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  public TodoIdempotencyStore(@Value("${todos.idempotency.max-size:10000}") long maxSize,
+      @Value("${todos.idempotency.ttl:24h}") Duration ttl,
+      @Value("${todos.idempotency.persistent:false}") boolean persistent) {
+    this.ttl = ttl;
+    this.persistent = persistent;
+    // An entry whose future is still running is neither evicted nor expired
+    this.entries = Caffeine.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(ttl)
+        .buildAsync();
+  }
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    if (!persistent) {
+      return;
+    }
+    purger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "idempotency-purge");
+      thread.setDaemon(true);
+      return thread;
+    });
+    purger.scheduleWithFixedDelay(this::purgeQuietly, 0, ttl.toMillis(), TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Runs {@code create} unless this client already sent {@code key}, in which case the todo it created is returned
+   * with {@link Status#REPLAYED}, or {@link Status#MISMATCH} when {@code request} differs from the first one.
+   */
+  public Outcome createOnce(String client, String key, Todo request, Supplier<Todo> create) {
+    String id = client + " " + key;
+    String fingerprint = fingerprint(request);
+    while (true) {
+      CompletableFuture<Entry> mine = new CompletableFuture<>();
+      CompletableFuture<Entry> existing = entries.asMap().putIfAbsent(id, mine);
+      if (existing == null) {
+        return execute(id, fingerprint, create, mine);
+      }
+      Entry entry;
+      try {
+        entry = existing.join();
+      } catch (CompletionException | CancellationException e) {
+        // That execution failed and has been removed; take it over
+        continue;
+      }
+      return replay(entry, fingerprint);
+    }
+  }
+
+  private Outcome execute(String id, String fingerprint, Supplier<Todo> create, CompletableFuture<Entry> mine) {
+    Entry entry;
+    boolean created = false;
+    try {
+      Optional<Entry> stored = persistent ? load(id) : Optional.empty();
+      if (stored.isPresent()) {
+        entry = stored.get();
+      } else {
+        entry = new Entry(fingerprint, insert(id, fingerprint, create));
+        created = true;
+      }
+    } catch (RuntimeException e) {
+      // Removed before the waiters wake up, so the one that retries finds the key free
+      entries.asMap().remove(id, mine);
+      mine.completeExceptionally(e);
+      throw e;
+    }
+    mine.complete(entry);
+    return created ? new Outcome(Status.CREATED, entry.todo()) : replay(entry, fingerprint);
+  }
+
+  private Todo insert(String id, String fingerprint, Supplier<Todo> create) {
+    if (!persistent) {
+      return create.get();
+    }
+    TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+    return transaction.execute(status -> {
+      // An expired row the purge has not reached yet would still hold the primary key
+      IdempotencyRecord expired = entityManager.find(IdempotencyRecord.class, id);
+      if (expired != null) {
+        entityManager.remove(expired);
+        entityManager.flush();
+      }
+      Todo saved = create.get();
+      entityManager.persist(new IdempotencyRecord(id, fingerprint, toJson(saved), LocalDateTime.now()));
+      return saved;
+    });
+  }
+
+  private Optional<Entry> load(String id) {
+    return recordRepository.findByIdAndCreatedAtAfter(id, LocalDateTime.now().minus(ttl))
+        .map(record -> new Entry(record.getFingerprint(), fromJson(record.getResponse())));
+  }
+
+  private static Outcome replay(Entry entry, String fingerprint) {
+    return entry.fingerprint().equals(fingerprint)
+        ? new Outcome(Status.REPLAYED, entry.todo())
+        : new Outcome(Status.MISMATCH, null);
+  }
+
+  // What the client asked for, independent of the wire format it was sent in
+  static String fingerprint(Todo request) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+    for (Object field : new Object[] {request.getTitle(), request.getDescription(), request.getCompleted()}) {
+      if (field == null) {
+        digest.update((byte) 0);
+      } else {
+        byte[] bytes = field.toString().getBytes(StandardCharsets.UTF_8);
+        digest.update((byte) 1);
+        digest.update(Integer.toString(bytes.length).getBytes(StandardCharsets.US_ASCII));
+        digest.update((byte) ':');
+        digest.update(bytes);
+      }
+    }
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  private String toJson(Todo todo) {
+    try {
+      return objectMapper.writeValueAsString(TodoView.of(todo));
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  // Through TodoView, which has no read-only properties, so the version comes back too
+  private Todo fromJson(String json) {
+    TodoView view;
+    try {
+      view = objectMapper.readValue(json, TodoView.class);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Unreadable idempotency record", e);
+    }
+    Todo todo = new Todo();
+    todo.setId(view.id());
+    todo.setTitle(view.title());
+    todo.setDescription(view.description());
+    todo.setCompleted(view.completed());
+    todo.setCreatedAt(view.createdAt());
+    todo.setUpdatedAt(view.updatedAt());
+    todo.setVersion(view.version());
+    return todo;
+  }
+
+  private void purgeQuietly() {
+    try {
+      int purged = recordRepository.deleteByCreatedAtBefore(LocalDateTime.now().minus(ttl));
+      if (purged > 0) {
+        logger.info("Purged {} expired idempotency keys", purged);
+      }
+    } catch (RuntimeException e) {
+      logger.warn("Idempotency key purge failed, retrying on the next one", e);
+    }
+  }
+
+  @Override
+  public void destroy() {
+    if (purger != null) {
+      purger.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,117 @@
+package com.example.microservice.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight for todo reads ({@code todos.read-coalescing}): concurrent calls of the same repository method with
+ * the same arguments share one database call and its result, or its exception.
+ * <p>
+ * A flight is keyed by method, arguments and the {@link TodoChangeTracker} ETag, so a read that starts after a
+ * write committed never gets a result loaded before it. It is forgotten as soon as it completes; this only merges
+ * calls that overlap, caching is left to the todos cache. A caller waits for someone else's flight at most
+ * {@code timeout} and then queries on its own. Results are shared between requests and must not be modified.
+ */
+@Component
+public class TodoReadCoalescer {
+
+  private record Flight(String method, List<Object> args, String version) {
+  }
+
+  private final boolean enabled;
+  private final long timeoutNanos;
+  private final Map<Flight, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+  private final AtomicLong executed = new AtomicLong();
+  private final AtomicLong collapsed = new AtomicLong();
+  private final AtomicLong timedOut = new AtomicLong();
+
+  @Autowired
+  private TodoChangeTracker changeTracker;
+
+  public TodoReadCoalescer(@Value("${todos.read-coalescing.enabled:true}") boolean enabled,
+      @Value("${todos.read-coalescing.timeout:2s}") Duration timeout) {
+    this.enabled = enabled;
+    this.timeoutNanos = timeout.toNanos();
+  }
+
+  /**
+   * Returns what {@code load} returns, running it only if no identical call is in flight, in which case that
+   * call's result is returned (or its exception thrown) instead.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> T read(String method, Supplier<T> load, Object... args) {
+    if (!enabled) {
+      return load.get();
+    }
+    Flight flight = new Flight(method, Arrays.asList(args), changeTracker.getETag());
+    CompletableFuture<Object> mine = new CompletableFuture<>();
+    CompletableFuture<Object> existing = inFlight.putIfAbsent(flight, mine);
+    if (existing == null) {
+      return (T) execute(flight, load, mine);
+    }
+    try {
+      T result = (T) existing.get(timeoutNanos, TimeUnit.NANOSECONDS);
+      collapsed.incrementAndGet();
+      return result;
+    } catch (TimeoutException e) {
+      timedOut.incrementAndGet();
+      return load.get();
+    } catch (ExecutionException e) {
+      collapsed.incrementAndGet();
+      throw propagate(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for " + method, e);
+    }
+  }
+
+  private Object execute(Flight flight, Supplier<?> load, CompletableFuture<Object> mine) {
+    executed.incrementAndGet();
+    try {
+      Object result = load.get();
+      // Removed before completing, so a caller arriving from now on starts a fresh flight
+      inFlight.remove(flight, mine);
+      mine.complete(result);
+      return result;
+    } catch (RuntimeException | Error e) {
+      inFlight.remove(flight, mine);
+      mine.completeExceptionally(e);
+      throw e;
+    }
+  }
+
+  private static RuntimeException propagate(Throwable cause) {
+    if (cause instanceof RuntimeException runtime) {
+      return runtime;
+    }
+    if (cause instanceof Error error) {
+      throw error;
+    }
+    return new IllegalStateException(cause);
+  }
+
+  public long getExecuted() {
+    return executed.get();
+  }
+
+  public long getCollapsed() {
+    return collapsed.get();
+  }
+
+  public long getTimedOut() {
+    return timedOut.get();
+  }
+}
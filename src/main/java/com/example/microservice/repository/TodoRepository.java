@@ -1,12 +1,153 @@
 package com.example.microservice.repository;
 
+import com.example.microservice.config.CacheConfig;
 import com.example.microservice.model.Todo;
+import com.example.microservice.model.TodoSummary;
+import com.example.microservice.model.TodoView;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface TodoRepository extends JpaRepository<Todo, Long> {
+  int EXPORT_PAGE_SIZE = 500;
+
   List<Todo> findByCompleted(Boolean completed);
+
+  // Read-through cache for single lookups; every write method below evicts what it touches
+  @Cacheable(cacheNames = CacheConfig.TODOS_CACHE, unless = "#result == null")
+  Optional<Todo> findCachedById(Long id);
+
+  @Override
+  @CacheEvict(cacheNames = CacheConfig.TODOS_CACHE, key = "#p0.id")
+  <S extends Todo> S save(S entity);
+
+  @Override
+  @CacheEvict(cacheNames = CacheConfig.TODOS_CACHE, allEntries = true)
+  <S extends Todo> List<S> saveAll(Iterable<S> entities);
+
+  @Override
+  @CacheEvict(cacheNames = CacheConfig.TODOS_CACHE, key = "#p0")
+  void deleteById(Long id);
+
+  @Override
+  @CacheEvict(cacheNames = CacheConfig.TODOS_CACHE, key = "#p0.id")
+  void delete(Todo entity);
+
+  @Override
+  @CacheEvict(cacheNames = CacheConfig.TODOS_CACHE, allEntries = true)
+  void deleteAllById(Iterable<? extends Long> ids);
+
+  @Override
+  @CacheEvict(cacheNames = CacheConfig.TODOS_CACHE, allEntries = true)
+  void deleteAll(Iterable<? extends Todo> entities);
+
+  @Override
+  @CacheEvict(cacheNames = CacheConfig.TODOS_CACHE, allEntries = true)
+  void deleteAll();
+
+  @Override
+  @CacheEvict(cacheNames = CacheConfig.TODOS_CACHE, allEntries = true)
+  void deleteAllByIdInBatch(Iterable<Long> ids);
+
+  @Override
+  @CacheEvict(cacheNames = CacheConfig.TODOS_CACHE, allEntries = true)
+  void deleteAllInBatch();
+
+  // Keyset pagination: seek past the last seen id instead of OFFSET, so every page costs O(page size).
+  // The type picks the projection; record types select only their own columns and skip the persistence context
+  <T> List<T> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable, Class<T> type);
+
+  // Ordering by (completed, id) rather than id alone lets H2 walk idx_todos_completed_id in order and stop at
+  // the page limit; with ORDER BY id it sorts every matching row first
+  <T> List<T> findByCompletedAndIdGreaterThanOrderByCompletedAscIdAsc(Boolean completed, Long id, Pageable pageable,
+      Class<T> type);
+
+  // Single-statement writes: no entity load, and the version is compared in the WHERE clause, so a concurrent
+  // writer makes the statement match no row instead of being silently overwritten. A null version skips the check.
+  // Each one selects the completed flag it replaced from H2's OLD TABLE of the update, so TodoCounters learns the
+  // transition from the write itself, with no read or lock before it; empty when no row matched. OLD TABLE is H2
+  // syntax. Being queries to JPA (H2 refuses them through executeUpdate, so no @Modifying) they leave the
+  // persistence context alone: with open-in-view off, a call outside a transaction reads the new row afterwards,
+  // and a transaction must not hold the row loaded
+  @Transactional
+  @CacheEvict(cacheNames = CacheConfig.TODOS_CACHE, key = "#p0")
+  @Query(nativeQuery = true, value = "select completed from old table (update todos set title = :title, "
+      + "description = :description, completed = :completed, updated_at = :now, version = version + 1 "
+      + "where id = :id and (cast(:version as bigint) is null or version = :version))")
+  Optional<Boolean> updateContent(@Param("id") Long id, @Param("title") String title,
+      @Param("description") String description, @Param("completed") Boolean completed, @Param("version") Long version,
+      @Param("now") LocalDateTime now);
+
+  @Transactional
+  @CacheEvict(cacheNames = CacheConfig.TODOS_CACHE, key = "#p0")
+  @Query(nativeQuery = true, value = "select completed from old table (update todos set completed = true, "
+      + "updated_at = :now, version = version + 1 "
+      + "where id = :id and (cast(:version as bigint) is null or version = :version))")
+  Optional<Boolean> markCompleted(@Param("id") Long id, @Param("version") Long version,
+      @Param("now") LocalDateTime now);
+
+  // Rows behind one page of search hits, in no particular order
+  <T> List<T> findByIdIn(Collection<Long> ids, Class<T> type);
+
+  // Write-behind flush and journal replay: applies a completion acknowledged at :at unless the row already carries
+  // it (or anything later), so replaying a batch that had committed before a crash changes nothing. Returns the
+  // completed flag it replaced, like markCompleted
+  @Transactional
+  @CacheEvict(cacheNames = CacheConfig.TODOS_CACHE, key = "#p0")
+  @Query(nativeQuery = true, value = "select completed from old table (update todos set completed = true, "
+      + "updated_at = :at, version = version + 1 where id = :id and (updated_at is null or updated_at < :at))")
+  Optional<Boolean> applyCompletion(@Param("id") Long id, @Param("at") LocalDateTime at);
+
+  // Deletes in one statement and returns id, completed and created_at of every row it removed. Called through
+  // deleteReturningById and deleteReturningByIdIn, which carry the cache eviction
+  @Query(nativeQuery = true, value = "select id, completed, created_at "
+      + "from old table (delete from todos where id in :ids)")
+  List<Object[]> deleteByIdInReturningRows(@Param("ids") Collection<Long> ids);
+
+  // What a delete removed, for TodoCounters (title, updatedAt and version are left out). Native queries return JDBC
+  // types, so the rows are typed here rather than by every caller
+  @Transactional
+  @CacheEvict(cacheNames = CacheConfig.TODOS_CACHE, key = "#p0")
+  default Optional<TodoSummary> deleteReturningById(Long id) {
+    return deleteByIdInReturningRows(List.of(id)).stream().map(TodoRepository::deleted).findFirst();
+  }
+
+  @Transactional
+  @CacheEvict(cacheNames = CacheConfig.TODOS_CACHE, allEntries = true)
+  default List<TodoSummary> deleteReturningByIdIn(Collection<Long> ids) {
+    return deleteByIdInReturningRows(ids).stream().map(TodoRepository::deleted).toList();
+  }
+
+  private static TodoSummary deleted(Object[] row) {
+    return new TodoSummary((Long) row[0], null, (Boolean) row[1], ((Timestamp) row[2]).toLocalDateTime(), null, null);
+  }
+
+  // Startup reconciliation of TodoCounters; the only full scans of the table outside exports
+  @Query("select t.completed, count(t) from Todo t group by t.completed")
+  List<Object[]> countByCompleted();
+
+  @Query("select cast(t.createdAt as LocalDate), count(t) from Todo t group by cast(t.createdAt as LocalDate)")
+  List<Object[]> countByCreatedDay();
+
+  // Exports and the search index walk the table in keyset pages after afterId. Embedded H2 ignores the JDBC fetch
+  // size and materializes a whole result set, so one cursor over the table would hold every row at once
+  default List<TodoView> findExportPage(Boolean completed, Long afterId) {
+    Pageable page = PageRequest.of(0, EXPORT_PAGE_SIZE);
+    return completed != null
+        ? findByCompletedAndIdGreaterThanOrderByCompletedAscIdAsc(completed, afterId, page, TodoView.class)
+        : findByIdGreaterThanOrderByIdAsc(afterId, page, TodoView.class);
+  }
 }
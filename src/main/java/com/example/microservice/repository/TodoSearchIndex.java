@@ -0,0 +1,237 @@
+package com.example.microservice.repository;
+
+import com.example.microservice.model.TodoView;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over todo titles and descriptions, behind {@code GET /api/todos/search}.
+ * <p>
+ * Terms are lower-cased and stripped of accents; the term dictionary is sorted, so a query term also matches
+ * every indexed term it is a prefix of by walking one range of it. Every query term must match (AND), and
+ * hits are ranked with BM25, counting title occurrences twice and prefix expansions at half weight. A query
+ * only touches the postings of the terms it matches, never the whole table.
+ * <p>
+ * The index is loaded from the database once at startup, before the web server accepts requests, and then
+ * follows the writes of {@code TodoController} once they commit ({@link #saved}, {@link #deleted}). Like the
+ * ETag counter it only sees writes made by this process.
+ * <p>
+ * Everything lives on the heap, roughly 1.2 KB per todo of 25 words, so the index holds at most
+ * {@code todos.search.max-documents} todos. Past that it empties itself and {@link #isAvailable()} turns false
+ * until a restart, rather than growing into an {@link OutOfMemoryError}.
+ */
+@Component
+public class TodoSearchIndex implements SmartInitializingSingleton {
+
+  private static final Logger logger = LoggerFactory.getLogger(TodoSearchIndex.class);
+  private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+  private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+  static final int TITLE_WEIGHT = 2;
+  static final int MIN_PREFIX_LENGTH = 2;
+  static final double PREFIX_WEIGHT = 0.5;
+  private static final double K1 = 1.2;
+  private static final double B = 0.75;
+
+  public record Hit(long id, double score) {
+  }
+
+  private record Document(String[] terms, int length) {
+  }
+
+  private final NavigableMap<String, Map<Long, Integer>> postings = new ConcurrentSkipListMap<>();
+  private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+  private final int maxDocuments;
+  private volatile boolean available = true;
+  private long totalLength;
+
+  @Autowired
+  private TodoRepository todoRepository;
+
+  public TodoSearchIndex(@Value("${todos.search.max-documents:50000}") int maxDocuments) {
+    this.maxDocuments = maxDocuments;
+  }
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    long start = System.nanoTime();
+    long afterId = 0L;
+    List<TodoView> page;
+    // Stops reading as soon as the table turns out too large to index
+    do {
+      page = todoRepository.findExportPage(null, afterId);
+      for (TodoView todo : page) {
+        add(todo.id(), todo.title(), todo.description());
+      }
+      if (!page.isEmpty()) {
+        afterId = page.get(page.size() - 1).id();
+      }
+    } while (available && page.size() == TodoRepository.EXPORT_PAGE_SIZE);
+    logger.info("Indexed {} todos for search in {} ms", documents.size(), (System.nanoTime() - start) / 1_000_000);
+  }
+
+  public void saved(Long id, String title, String description) {
+    AfterCommit.run(() -> add(id, title, description));
+  }
+
+  public void deleted(Long id) {
+    AfterCommit.run(() -> remove(id));
+  }
+
+  public synchronized void add(Long id, String title, String description) {
+    if (!available) {
+      return;
+    }
+    remove(id);
+    Map<String, Integer> frequencies = new HashMap<>();
+    for (String term : terms(title)) {
+      frequencies.merge(term, TITLE_WEIGHT, Integer::sum);
+    }
+    for (String term : terms(description)) {
+      frequencies.merge(term, 1, Integer::sum);
+    }
+    int length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+    String[] documentTerms = new String[frequencies.size()];
+    int next = 0;
+    for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+      postings.computeIfAbsent(entry.getKey(), t -> new ConcurrentHashMap<>()).put(id, entry.getValue());
+      // The dictionary's own copy of the term, so documents sharing a word share one String
+      documentTerms[next++] = postings.ceilingKey(entry.getKey());
+    }
+    documents.put(id, new Document(documentTerms, length));
+    totalLength += length;
+    if (documents.size() > maxDocuments) {
+      logger.warn("More than {} todos to index, search is disabled until restart; raise todos.search.max-documents "
+          + "along with the heap", maxDocuments);
+      available = false;
+      postings.clear();
+      documents.clear();
+      totalLength = 0;
+    }
+  }
+
+  public synchronized void remove(Long id) {
+    Document document = documents.remove(id);
+    if (document == null) {
+      return;
+    }
+    totalLength -= document.length();
+    for (String term : document.terms()) {
+      Map<Long, Integer> docs = postings.get(term);
+      docs.remove(id);
+      if (docs.isEmpty()) {
+        postings.remove(term);
+      }
+    }
+  }
+
+  /**
+   * Ranks the todos matching every term of {@code query} and returns hits {@code offset} to
+   * {@code offset + limit} (exclusive), best first, ties broken by id.
+   */
+  public List<Hit> search(String query, int offset, int limit) {
+    List<String> queryTerms = terms(query).stream().distinct().toList();
+    int documentCount = documents.size();
+    if (queryTerms.isEmpty() || documentCount == 0) {
+      return List.of();
+    }
+    double averageLength = Math.max(1.0, (double) totalLength / documentCount);
+
+    Map<Long, Double> scores = null;
+    for (String queryTerm : queryTerms) {
+      // Per document, the best of the words the query term matches; the term's document frequency is taken over
+      // all of them, so a rare expansion cannot outrank the exact word
+      Map<Long, Double> termScores = new HashMap<>();
+      for (Map.Entry<String, Map<Long, Integer>> entry : matchingTerms(queryTerm).entrySet()) {
+        double weight = entry.getKey().equals(queryTerm) ? 1.0 : PREFIX_WEIGHT;
+        for (Map.Entry<Long, Integer> posting : entry.getValue().entrySet()) {
+          Document document = documents.get(posting.getKey());
+          if (document == null || scores != null && !scores.containsKey(posting.getKey())) {
+            continue;
+          }
+          int tf = posting.getValue();
+          double norm = K1 * (1 - B + B * document.length() / averageLength);
+          termScores.merge(posting.getKey(), weight * tf * (K1 + 1) / (tf + norm), Math::max);
+        }
+      }
+      if (termScores.isEmpty()) {
+        return List.of();
+      }
+      int matched = termScores.size();
+      double idf = Math.log(1 + (documentCount - matched + 0.5) / (matched + 0.5));
+      Map<Long, Double> previous = scores;
+      termScores.replaceAll((id, score) -> idf * score + (previous == null ? 0 : previous.get(id)));
+      scores = termScores;
+    }
+    return top(scores, offset, limit);
+  }
+
+  private NavigableMap<String, Map<Long, Integer>> matchingTerms(String queryTerm) {
+    // A single character would expand to a large share of the dictionary, so it only matches itself
+    if (queryTerm.length() < MIN_PREFIX_LENGTH) {
+      return postings.subMap(queryTerm, true, queryTerm, true);
+    }
+    return postings.subMap(queryTerm, true, queryTerm + Character.MAX_VALUE, false);
+  }
+
+  private static final Comparator<Hit> RANK = Comparator.comparingDouble(Hit::score).reversed()
+      .thenComparingLong(Hit::id);
+
+  // Keeps only offset + limit hits in a heap, so ranking costs O(hits log page) rather than a full sort
+  private static List<Hit> top(Map<Long, Double> scores, int offset, int limit) {
+    if (offset >= scores.size()) {
+      return List.of();
+    }
+    // Sized by the hits at hand, never by what the caller asked for
+    int keep = (int) Math.min((long) offset + limit, scores.size());
+    PriorityQueue<Hit> heap = new PriorityQueue<>(keep + 1, RANK.reversed());
+    scores.forEach((id, score) -> {
+      heap.add(new Hit(id, score));
+      if (heap.size() > keep) {
+        heap.poll();
+      }
+    });
+    List<Hit> ranked = new ArrayList<>(heap);
+    ranked.sort(RANK);
+    return ranked.subList(offset, ranked.size());
+  }
+
+  static List<String> terms(String text) {
+    if (text == null || text.isBlank()) {
+      return List.of();
+    }
+    String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+        .toLowerCase(Locale.ROOT);
+    List<String> terms = new ArrayList<>();
+    for (String term : NON_WORD.split(folded)) {
+      if (!term.isEmpty()) {
+        terms.add(term);
+      }
+    }
+    return terms;
+  }
+
+  public int size() {
+    return documents.size();
+  }
+
+  public boolean isAvailable() {
+    return available;
+  }
+}
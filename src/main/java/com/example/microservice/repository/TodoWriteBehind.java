@@ -0,0 +1,236 @@
+package com.example.microservice.repository;
+
+import com.example.microservice.model.Todo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Optional write-behind for {@code PATCH /api/todos/{id}/complete} ({@code todos.write-behind.enabled}).
+ * <p>
+ * A completion is acknowledged once it is in the {@link TodoCompletionJournal}; repeated completions of the same
+ * todo coalesce in memory and reach the database in one transaction per flush, when {@code max-pending} todos
+ * are waiting or every {@code flush-interval}. Reads stay current: {@link #pendingCompletion} lets single-todo
+ * reads apply a pending completion, and {@link #flush} is a barrier that collection reads and other writes call
+ * first. Pending completions are flushed on shutdown and replayed from the journal after a crash.
+ */
+@Component
+public class TodoWriteBehind implements SmartInitializingSingleton, DisposableBean {
+
+  private static final Logger logger = LoggerFactory.getLogger(TodoWriteBehind.class);
+
+  private final boolean enabled;
+  private final int maxPending;
+  private final Duration flushInterval;
+  private final Path journalPath;
+  // Appends hold the read lock, the swap before a flush the write lock, so a journal segment and the batch
+  // flushed with it always hold the same completions
+  private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+  private final Object flushLock = new Object();
+  private volatile Map<Long, LocalDateTime> pending = new ConcurrentHashMap<>();
+  private volatile Map<Long, LocalDateTime> flushing = Map.of();
+  private TodoCompletionJournal journal;
+  private ScheduledExecutorService scheduler;
+
+  @Autowired
+  private TodoRepository todoRepository;
+
+  @Autowired
+  private TodoCounters counters;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  public TodoWriteBehind(@Value("${todos.write-behind.enabled:false}") boolean enabled,
+      @Value("${todos.write-behind.max-pending:500}") int maxPending,
+      @Value("${todos.write-behind.flush-interval:200ms}") Duration flushInterval,
+      @Value("${todos.write-behind.journal:/data/todos-completions.journal}") Path journalPath) {
+    this.enabled = enabled;
+    this.maxPending = maxPending;
+    this.flushInterval = flushInterval;
+    this.journalPath = journalPath;
+  }
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    if (!enabled) {
+      return;
+    }
+    journal = new TodoCompletionJournal(journalPath);
+    List<TodoCompletionJournal.Entry> recovered = journal.recover();
+    if (!recovered.isEmpty()) {
+      Map<Long, LocalDateTime> batch = new ConcurrentHashMap<>();
+      recovered.forEach(entry -> batch.merge(entry.id(), entry.at(), TodoWriteBehind::latest));
+      int applied = apply(batch);
+      logger.info("Replayed {} journaled completions, {} applied", batch.size(), applied);
+    }
+    journal.reset();
+    scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "todo-write-behind");
+      thread.setDaemon(true);
+      return thread;
+    });
+    scheduler.scheduleWithFixedDelay(this::flushQuietly, flushInterval.toMillis(), flushInterval.toMillis(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Records a completion durably without touching the database and returns the {@code updatedAt} it will be
+   * written with.
+   */
+  public LocalDateTime complete(Long id) {
+    // The column keeps microseconds; the journal and the overlay must agree with what is stored
+    LocalDateTime at = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    long position;
+    int size;
+    swapLock.readLock().lock();
+    try {
+      position = journal.append(id, at);
+      pending.merge(id, at, TodoWriteBehind::latest);
+      size = pending.size();
+    } finally {
+      swapLock.readLock().unlock();
+    }
+    journal.sync(position);
+    if (size >= maxPending) {
+      scheduler.execute(this::flushQuietly);
+    }
+    return at;
+  }
+
+  /**
+   * When the todo has a completion the database does not show yet, the {@code updatedAt} it will get.
+   */
+  public Optional<LocalDateTime> pendingCompletion(Long id) {
+    LocalDateTime at = pending.get(id);
+    return Optional.ofNullable(at != null ? at : flushing.get(id));
+  }
+
+  /**
+   * Returns the todo as it reads once its pending completion is written, or the todo itself when it has none.
+   * Never modifies the argument, which may be the cached instance.
+   */
+  public Todo withPendingCompletion(Todo todo) {
+    Optional<LocalDateTime> at = pendingCompletion(todo.getId());
+    if (at.isEmpty() || todo.getUpdatedAt() != null && !todo.getUpdatedAt().isBefore(at.get())) {
+      return todo;
+    }
+    Todo completed = new Todo();
+    completed.setId(todo.getId());
+    completed.setTitle(todo.getTitle());
+    completed.setDescription(todo.getDescription());
+    completed.setCompleted(true);
+    completed.setCreatedAt(todo.getCreatedAt());
+    completed.setUpdatedAt(at.get());
+    completed.setVersion(todo.getVersion() != null ? todo.getVersion() + 1 : null);
+    return completed;
+  }
+
+  /**
+   * Writes every completion acknowledged before the call; returns at once when there is none.
+   */
+  public void flush() {
+    if (!enabled || pending.isEmpty() && flushing.isEmpty()) {
+      return;
+    }
+    synchronized (flushLock) {
+      if (pending.isEmpty()) {
+        return;
+      }
+      swapLock.writeLock().lock();
+      try {
+        flushing = pending;
+        pending = new ConcurrentHashMap<>();
+        journal.rotate();
+      } finally {
+        swapLock.writeLock().unlock();
+      }
+      try {
+        apply(flushing);
+        journal.discardRotated();
+      } catch (RuntimeException e) {
+        // Keep the batch: back into the current segment and map, then drop the rotated copy
+        swapLock.readLock().lock();
+        try {
+          long position = 0;
+          for (Map.Entry<Long, LocalDateTime> entry : flushing.entrySet()) {
+            position = journal.append(entry.getKey(), entry.getValue());
+            pending.merge(entry.getKey(), entry.getValue(), TodoWriteBehind::latest);
+          }
+          journal.sync(position);
+        } finally {
+          swapLock.readLock().unlock();
+        }
+        journal.discardRotated();
+        throw e;
+      } finally {
+        flushing = Map.of();
+      }
+    }
+  }
+
+  private void flushQuietly() {
+    try {
+      flush();
+    } catch (RuntimeException e) {
+      logger.warn("Write-behind flush failed, retrying on the next one", e);
+    }
+  }
+
+  private int apply(Map<Long, LocalDateTime> batch) {
+    TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+    return transaction.execute(status -> {
+      int applied = 0;
+      for (Map.Entry<Long, LocalDateTime> entry : batch.entrySet()) {
+        Optional<Boolean> replaced = todoRepository.applyCompletion(entry.getKey(), entry.getValue());
+        if (replaced.isPresent()) {
+          counters.completionChanged(replaced.get(), true);
+          applied++;
+        }
+      }
+      return applied;
+    });
+  }
+
+  int pendingCount() {
+    return pending.size();
+  }
+
+  @Override
+  public void destroy() {
+    if (!enabled) {
+      return;
+    }
+    scheduler.shutdownNow();
+    flush();
+    journal.close();
+  }
+
+  private static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+    return a.isAfter(b) ? a : b;
+  }
+}
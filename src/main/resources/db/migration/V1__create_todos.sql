@@ -0,0 +1,10 @@
+-- Matches the table Hibernate generated with ddl-auto=update, so existing databases are left untouched
+CREATE TABLE IF NOT EXISTS todos (
+    id          BIGINT        NOT NULL,
+    title       VARCHAR(255)  NOT NULL,
+    description VARCHAR(1000),
+    completed   BOOLEAN       NOT NULL,
+    created_at  TIMESTAMP(6)  NOT NULL,
+    updated_at  TIMESTAMP(6),
+    PRIMARY KEY (id)
+);
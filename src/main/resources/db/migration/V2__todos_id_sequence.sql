@@ -0,0 +1,6 @@
+-- Pooled id generator for Todo (allocationSize = 50)
+CREATE SEQUENCE IF NOT EXISTS todos_seq START WITH 1 INCREMENT BY 50;
+
+-- Older databases hold ids handed out by the former IDENTITY column. The pooled optimizer uses
+-- (value - 49 .. value), so the next value has to clear MAX(id) by a full block.
+ALTER SEQUENCE todos_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 51 FROM todos);
@@ -0,0 +1,5 @@
+-- Keyset pages filtered by completion: WHERE completed = ? AND id > ? ORDER BY id
+CREATE INDEX IF NOT EXISTS idx_todos_completed_id ON todos (completed, id);
+
+-- Range scans and ordering by creation time
+CREATE INDEX IF NOT EXISTS idx_todos_created_at ON todos (created_at);
@@ -0,0 +1,2 @@
+-- Optimistic locking: every write bumps the version, and conditional writes compare it in the WHERE clause
+ALTER TABLE todos ADD COLUMN IF NOT EXISTS version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,11 @@
+-- Responses of POST /api/todos by Idempotency-Key, written only with todos.idempotency.persistent=true.
+-- The id is "<client> <key>"; rows older than todos.idempotency.ttl are ignored and purged
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    id          VARCHAR(512)  NOT NULL,
+    fingerprint VARCHAR(64)   NOT NULL,
+    response    CLOB          NOT NULL,
+    created_at  TIMESTAMP(6)  NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_created_at ON idempotency_keys (created_at);
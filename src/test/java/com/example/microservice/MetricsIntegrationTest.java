@@ -0,0 +1,69 @@
+package com.example.microservice;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@TestPropertySource(locations = "classpath:application-test.properties")
+@DisplayName("Metrics Integration Tests")
+class MetricsIntegrationTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Value("${api.key}")
+  private String API_KEY;
+
+  @Test
+  @DisplayName("Should expose route, repository, pool, Hibernate, API key, load shedding and JVM metrics to Prometheus")
+  void shouldExposePrometheusMetrics() throws Exception {
+    mockMvc.perform(get("/api/todos").header("X-API-Key", API_KEY))
+        .andExpect(status().isOk());
+
+    mockMvc.perform(get("/actuator/prometheus").header("X-API-Key", API_KEY))
+        .andExpect(status().isOk())
+        .andExpect(content().string(containsString("http_server_requests_seconds_bucket{application=\"java-microservice-k8-test\"")))
+        .andExpect(content().string(containsString("uri=\"/api/todos\"")))
+        .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_bucket")))
+        .andExpect(content().string(containsString("method=\"findByIdGreaterThanOrderByIdAsc\"")))
+        .andExpect(content().string(containsString("hikaricp_connections_pending")))
+        .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds_bucket")))
+        .andExpect(content().string(containsString("hibernate_query_executions_total")))
+        .andExpect(content().string(containsString("hibernate_entities_loads_total")))
+        .andExpect(content().string(containsString("jvm_gc_memory_allocated_bytes_total")))
+        .andExpect(content().string(containsString("api_client_requests_total{application=\"java-microservice-k8-test\",client=\"default\"")))
+        .andExpect(content().string(containsString("api_client_throttled_total")))
+        .andExpect(content().string(containsString("api_client_in_flight")))
+        .andExpect(content().string(containsString("http_server_concurrency_limit")))
+        .andExpect(content().string(containsString("http_server_requests_shed_total")));
+  }
+
+  @Test
+  @DisplayName("Should keep actuator endpoints other than health and info behind an API key")
+  void shouldRequireApiKeyForMetrics() throws Exception {
+    mockMvc.perform(get("/actuator/health"))
+        .andExpect(status().isOk());
+    mockMvc.perform(get("/actuator/info"))
+        .andExpect(status().isOk());
+
+    mockMvc.perform(get("/actuator/prometheus"))
+        .andExpect(status().isForbidden());
+    mockMvc.perform(get("/actuator/metrics"))
+        .andExpect(status().isForbidden());
+    mockMvc.perform(get("/actuator"))
+        .andExpect(status().isForbidden());
+  }
+}
@@ -0,0 +1,100 @@
+package com.example.microservice.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("AdaptiveConcurrencyLimit Unit Tests")
+class AdaptiveConcurrencyLimitTest {
+
+  private static final long THRESHOLD = TimeUnit.MILLISECONDS.toNanos(100);
+
+  private final AtomicLong clock = new AtomicLong(TimeUnit.SECONDS.toNanos(7));
+
+  @Test
+  @DisplayName("Should refuse requests beyond the limit and beyond a share of it")
+  void shouldRefuseBeyondLimit() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 1, 10, THRESHOLD, 0.5, clock::get);
+
+    assertTrue(limit.tryAcquire(0.5));
+    assertTrue(limit.tryAcquire(0.5));
+    assertFalse(limit.tryAcquire(0.5));
+    assertTrue(limit.tryAcquire(1.0));
+    assertTrue(limit.tryAcquire(1.0));
+    assertFalse(limit.tryAcquire(1.0));
+    assertEquals(4, limit.getInFlight());
+  }
+
+  @Test
+  @DisplayName("Should grow by one per timely response while the limit is in use")
+  void shouldGrowWhenBusyAndFast() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 1, 5, THRESHOLD, 0.5, clock::get);
+    long[] starts = {acquire(limit), acquire(limit), acquire(limit)};
+
+    clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(10));
+    for (long start : starts) {
+      limit.release(start, true);
+    }
+
+    // Only the first release saw at least half of the limit in flight (3 of 4); the others do not grow it
+    assertEquals(5, limit.getLimit());
+    assertEquals(0, limit.getInFlight());
+  }
+
+  @Test
+  @DisplayName("Should back off once per threshold interval on slow responses")
+  void shouldBackOffOnSlowResponses() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 2, 40, THRESHOLD, 0.5, clock::get);
+    long first = acquire(limit);
+    long second = acquire(limit);
+
+    clock.addAndGet(2 * THRESHOLD);
+    limit.release(first, true);
+    limit.release(second, true);
+    assertEquals(10, limit.getLimit());
+
+    long third = acquire(limit);
+    clock.addAndGet(2 * THRESHOLD);
+    limit.release(third, true);
+    assertEquals(5, limit.getLimit());
+  }
+
+  @Test
+  @DisplayName("Should leave the limit alone for unsampled releases and never go below the minimum")
+  void shouldRespectMinimumAndUnsampledReleases() {
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(3, 2, 10, THRESHOLD, 0.1, clock::get);
+
+    long start = acquire(limit);
+    clock.addAndGet(10 * THRESHOLD);
+    limit.release(start, false);
+    assertEquals(3, limit.getLimit());
+
+    start = acquire(limit);
+    limit.release(start - 10 * THRESHOLD, true);
+    assertEquals(2, limit.getLimit());
+  }
+
+  @Test
+  @DisplayName("Should admit and time requests on a clock that reads negative")
+  void shouldWorkWithNegativeClock() {
+    clock.set(-TimeUnit.SECONDS.toNanos(7));
+    AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(4, 1, 10, THRESHOLD, 0.5, clock::get);
+
+    long start = acquire(limit);
+    assertTrue(start < 0);
+    clock.addAndGet(2 * THRESHOLD);
+    limit.release(start, true);
+
+    assertEquals(2, limit.getLimit());
+    assertEquals(0, limit.getInFlight());
+  }
+
+  private static long acquire(AdaptiveConcurrencyLimit limit) {
+    assertTrue(limit.tryAcquire(1));
+    return limit.nanoTime();
+  }
+}
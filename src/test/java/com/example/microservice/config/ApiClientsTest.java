@@ -0,0 +1,62 @@
+package com.example.microservice.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ApiClients Unit Tests")
+class ApiClientsTest {
+
+  private final ApiClient reporting = new ApiClient("reporting", "reporting-key", 0, 1, 0);
+  private final ApiClient batch = new ApiClient("batch", null, 0, 1, 0);
+  private final ApiClients clients = new ApiClients(List.of(reporting, batch));
+
+  @Test
+  @DisplayName("Should find a client only by its exact key")
+  void shouldFindByExactKey() {
+    assertSame(reporting, clients.find("reporting-key"));
+    assertNull(clients.find("reporting-kez"));
+    assertNull(clients.find("reporting-key "));
+    assertNull(clients.find(""));
+    assertNull(clients.find("x".repeat(ApiClients.MAX_KEY_LENGTH + 1)));
+  }
+
+  @Test
+  @DisplayName("Should accept old and new keys while rotating, then only the new one")
+  void shouldRotateKeys() {
+    clients.rotate(Map.of("reporting", List.of("reporting-key", "reporting-key-2"), "batch", List.of("batch-key")));
+
+    assertSame(reporting, clients.find("reporting-key"));
+    assertSame(reporting, clients.find("reporting-key-2"));
+    assertSame(batch, clients.find("batch-key"));
+
+    clients.rotate(Map.of("reporting", List.of("reporting-key-2")));
+
+    assertNull(clients.find("reporting-key"));
+    assertSame(reporting, clients.find("reporting-key-2"));
+    assertNull(clients.find("batch-key"));
+  }
+
+  @Test
+  @DisplayName("Should keep the current keys when a rotation is invalid")
+  void shouldRejectInvalidRotation() {
+    assertThrows(IllegalArgumentException.class, () -> clients.rotate(Map.of("unknown", List.of("k"))));
+    assertThrows(IllegalStateException.class, () -> clients.rotate(Map.of("batch", List.of("reporting-key"))));
+
+    assertSame(reporting, clients.find("reporting-key"));
+    assertNull(clients.find("k"));
+  }
+
+  @Test
+  @DisplayName("Should share one immutable authentication per client")
+  void shouldShareImmutableAuthentication() {
+    assertSame(reporting.getAuthentication(), clients.find("reporting-key").getAuthentication());
+    assertEquals("reporting", reporting.getAuthentication().getName());
+    assertTrue(reporting.getAuthentication().isAuthenticated());
+    assertThrows(UnsupportedOperationException.class, () -> reporting.getAuthentication().setAuthenticated(false));
+  }
+}
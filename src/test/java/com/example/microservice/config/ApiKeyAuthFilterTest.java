@@ -0,0 +1,139 @@
+package com.example.microservice.config;
+
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ApiKeyAuthFilter Unit Tests")
+class ApiKeyAuthFilterTest {
+
+  private final ApiClient reporting = new ApiClient("reporting", "reporting-key", 1, 2, 0);
+  private final ApiClient batch = new ApiClient("batch", "batch-key", 0, 1, 1);
+  private final ApiKeyAuthFilter filter = new ApiKeyAuthFilter(new ApiClients(List.of(reporting, batch)),
+      "/api/health", "/actuator/**");
+  private final AtomicReference<Authentication> seen = new AtomicReference<>();
+  private final FilterChain chain = (request, response) ->
+      seen.set(SecurityContextHolder.getContext().getAuthentication());
+
+  @AfterEach
+  void tearDown() {
+    SecurityContextHolder.clearContext();
+  }
+
+  @Test
+  @DisplayName("Should authenticate a known key as its client")
+  void shouldAuthenticateKnownKey() throws Exception {
+    MockHttpServletResponse response = perform(request("reporting-key"));
+
+    assertEquals(200, response.getStatus());
+    assertEquals("reporting", seen.get().getName());
+    assertEquals(1, reporting.getAdmitted());
+  }
+
+  @Test
+  @DisplayName("Should pass unknown or missing keys through unauthenticated")
+  void shouldNotAuthenticateUnknownKey() throws Exception {
+    perform(request("other-key"));
+    assertNull(seen.get());
+
+    perform(request(null));
+    assertNull(seen.get());
+  }
+
+  @Test
+  @DisplayName("Should answer 429 with Retry-After once the key's burst is spent")
+  void shouldThrottleOverRate() throws Exception {
+    perform(request("reporting-key"));
+    perform(request("reporting-key"));
+    seen.set(null);
+
+    MockHttpServletResponse response = perform(request("reporting-key"));
+
+    assertEquals(429, response.getStatus());
+    assertEquals("1", response.getHeader("Retry-After"));
+    assertNull(seen.get());
+    assertEquals(1, reporting.getRateLimited());
+    assertEquals(0, batch.getRateLimited());
+  }
+
+  @Test
+  @DisplayName("Should answer 429 while the key has max-in-flight requests running")
+  void shouldThrottleOverConcurrency() throws Exception {
+    FilterChain nested = (request, response) -> {
+      MockHttpServletResponse inner = perform(request("batch-key"));
+      assertEquals(429, inner.getStatus());
+      assertEquals(1, batch.getInFlight());
+    };
+
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request("batch-key"), response, nested);
+
+    assertEquals(200, response.getStatus());
+    assertEquals(0, batch.getInFlight());
+    assertEquals(1, batch.getConcurrencyLimited());
+  }
+
+  @Test
+  @DisplayName("Should not count an async dispatch against the limits again")
+  void shouldNotThrottleAsyncDispatch() throws Exception {
+    MockHttpServletRequest request = request("reporting-key");
+    request.setDispatcherType(DispatcherType.ASYNC);
+
+    for (int i = 0; i < 5; i++) {
+      assertEquals(200, perform(request).getStatus());
+    }
+    assertEquals("reporting", seen.get().getName());
+    assertEquals(0, reporting.getAdmitted());
+  }
+
+  @Test
+  @DisplayName("Should skip public paths without authenticating or counting the key")
+  void shouldSkipPublicPaths() throws Exception {
+    for (String path : List.of("/api/health", "/actuator", "/actuator/prometheus")) {
+      MockHttpServletRequest request = request("reporting-key");
+      request.setRequestURI(path);
+      assertEquals(200, perform(request).getStatus());
+      assertNull(seen.get());
+    }
+    assertEquals(0, reporting.getAdmitted());
+
+    MockHttpServletRequest notPublic = request("reporting-key");
+    notPublic.setRequestURI("/api/healthz");
+    perform(notPublic);
+    assertEquals("reporting", seen.get().getName());
+  }
+
+  @Test
+  @DisplayName("Should reject two clients sharing a key")
+  void shouldRejectDuplicateKeys() {
+    assertThrows(IllegalStateException.class, () -> new ApiClients(List.of(
+        new ApiClient("a", "same", 1, 1, 1), new ApiClient("b", "same", 1, 1, 1))));
+  }
+
+  private MockHttpServletResponse perform(MockHttpServletRequest request) throws ServletException, IOException {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request, response, chain);
+    return response;
+  }
+
+  private static MockHttpServletRequest request(String apiKey) {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/todos");
+    if (apiKey != null) {
+      request.addHeader("X-API-Key", apiKey);
+    }
+    return request;
+  }
+}
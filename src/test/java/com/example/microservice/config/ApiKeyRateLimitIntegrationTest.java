@@ -0,0 +1,46 @@
+package com.example.microservice.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(locations = "classpath:application-test.properties", properties = {
+    "api.clients.reporting.key=reporting-test-key",
+    "api.clients.reporting.requests-per-second=0.1",
+    "api.clients.reporting.burst=2"
+})
+@DisplayName("API Key Rate Limit Integration Tests")
+class ApiKeyRateLimitIntegrationTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Value("${api.key}")
+  private String API_KEY;
+
+  @Test
+  @DisplayName("Should throttle one client without affecting the others")
+  void shouldThrottlePerKey() throws Exception {
+    mockMvc.perform(get("/api/hello").header("X-API-Key", "reporting-test-key"))
+        .andExpect(status().isOk());
+    mockMvc.perform(get("/api/hello").header("X-API-Key", "reporting-test-key"))
+        .andExpect(status().isOk());
+
+    mockMvc.perform(get("/api/hello").header("X-API-Key", "reporting-test-key"))
+        .andExpect(status().isTooManyRequests())
+        .andExpect(header().string("Retry-After", "10"));
+
+    mockMvc.perform(get("/api/hello").header("X-API-Key", API_KEY))
+        .andExpect(status().isOk());
+  }
+}
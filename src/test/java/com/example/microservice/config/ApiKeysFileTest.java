@@ -0,0 +1,74 @@
+package com.example.microservice.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("ApiKeysFile Unit Tests")
+class ApiKeysFileTest {
+
+  private final ApiClient reporting = new ApiClient("reporting", "configured-key", 0, 1, 0);
+  private final ApiClient batch = new ApiClient("batch", "batch-key", 0, 1, 0);
+  private final ApiClients clients = new ApiClients(List.of(reporting, batch));
+  private ApiKeysFile keysFile;
+
+  @TempDir
+  Path dir;
+
+  @AfterEach
+  void tearDown() {
+    if (keysFile != null) {
+      keysFile.destroy();
+    }
+  }
+
+  @Test
+  @DisplayName("Should replace the keys of listed clients and pick up changes")
+  void shouldLoadAndReload() throws Exception {
+    Path path = Files.writeString(dir.resolve("api-keys"), "reporting = old-key, new-key\n");
+    keysFile = new ApiKeysFile(clients, path, Duration.ofHours(1));
+
+    assertNull(clients.find("configured-key"));
+    assertSame(reporting, clients.find("old-key"));
+    assertSame(reporting, clients.find("new-key"));
+    assertSame(batch, clients.find("batch-key"));
+    assertFalse(keysFile.reload());
+
+    Files.writeString(path, "reporting=new-key\n");
+    assertTrue(keysFile.reload());
+
+    assertNull(clients.find("old-key"));
+    assertSame(reporting, clients.find("new-key"));
+  }
+
+  @Test
+  @DisplayName("Should fail on a bad file at startup and keep the previous keys later")
+  void shouldRejectBadFile() throws Exception {
+    Path path = dir.resolve("api-keys");
+    assertThrows(IllegalStateException.class, () -> new ApiKeysFile(clients, path, Duration.ofHours(1)));
+
+    Files.writeString(path, "reporting=new-key\n");
+    keysFile = new ApiKeysFile(clients, path, Duration.ofHours(1));
+    Files.writeString(path, "unknown=other-key\n");
+
+    assertThrows(IllegalArgumentException.class, () -> keysFile.reload());
+    assertSame(reporting, clients.find("new-key"));
+  }
+
+  @Test
+  @DisplayName("Should leave the configured keys alone without a file")
+  void shouldDoNothingWithoutPath() {
+    keysFile = new ApiKeysFile(clients, null, Duration.ofMillis(1));
+
+    assertSame(reporting, clients.find("configured-key"));
+    assertSame(batch, clients.find("batch-key"));
+  }
+}
@@ -0,0 +1,44 @@
+package com.example.microservice.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("BufferedResponseFilter Unit Tests")
+class BufferedResponseFilterTest {
+
+  private final BufferedResponseFilter filter = new BufferedResponseFilter();
+
+  @Test
+  @DisplayName("Should keep a synchronous response uncommitted across flushes")
+  void shouldIgnoreFlushesWhileSynchronous() throws Exception {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(new MockHttpServletRequest("GET", "/api/todos"), response, (req, res) -> {
+      res.getOutputStream().write("[]".getBytes(StandardCharsets.UTF_8));
+      res.getOutputStream().flush();
+      res.flushBuffer();
+      assertFalse(res.isCommitted());
+    });
+
+    assertEquals("[]", response.getContentAsString());
+  }
+
+  @Test
+  @DisplayName("Should pass flushes through once the request is async")
+  void shouldFlushWhenAsync() throws Exception {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/todos/changes");
+    request.setAsyncSupported(true);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(request, response, (req, res) -> {
+      req.startAsync();
+      res.getOutputStream().write("data:{}\n\n".getBytes(StandardCharsets.UTF_8));
+      res.getOutputStream().flush();
+      assertTrue(res.isCommitted());
+    });
+  }
+}
@@ -0,0 +1,85 @@
+package com.example.microservice.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ConcurrencyLimitedDataSource Unit Tests")
+class ConcurrencyLimitedDataSourceTest {
+
+  @Mock
+  private DataSource targetDataSource;
+
+  @Mock
+  private Connection targetConnection;
+
+  private ConcurrencyLimitedDataSource dataSource;
+
+  @BeforeEach
+  void setUp() {
+    dataSource = new ConcurrencyLimitedDataSource(targetDataSource, 1, Duration.ofMillis(50));
+  }
+
+  @Test
+  @DisplayName("Should hand out connections up to the limit and time out beyond it")
+  void shouldTimeOutBeyondLimit() throws SQLException {
+    when(targetDataSource.getConnection()).thenReturn(targetConnection);
+
+    Connection first = dataSource.getConnection();
+
+    assertEquals(0, dataSource.getAvailablePermits());
+    assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+    verify(targetDataSource, times(1)).getConnection();
+    assertSame(targetConnection, ((ConnectionProxy) first).getTargetConnection());
+  }
+
+  @Test
+  @DisplayName("Should release the permit exactly once when the connection is closed")
+  void shouldReleasePermitOnClose() throws SQLException {
+    when(targetDataSource.getConnection()).thenReturn(targetConnection);
+
+    Connection connection = dataSource.getConnection();
+    connection.close();
+    connection.close();
+
+    assertEquals(1, dataSource.getAvailablePermits());
+    verify(targetConnection, times(1)).close();
+    assertNotNull(dataSource.getConnection());
+  }
+
+  @Test
+  @DisplayName("Should release the permit when the pool fails")
+  void shouldReleasePermitWhenPoolFails() throws SQLException {
+    when(targetDataSource.getConnection()).thenThrow(new SQLException("pool exhausted"));
+
+    assertThrows(SQLException.class, () -> dataSource.getConnection());
+
+    assertEquals(1, dataSource.getAvailablePermits());
+  }
+
+  @Test
+  @DisplayName("Should delegate other calls to the target connection")
+  void shouldDelegateToTargetConnection() throws SQLException {
+    when(targetDataSource.getConnection()).thenReturn(targetConnection);
+    when(targetConnection.getAutoCommit()).thenReturn(true);
+
+    Connection connection = dataSource.getConnection();
+
+    assertTrue(connection.getAutoCommit());
+    verify(targetConnection).getAutoCommit();
+  }
+}
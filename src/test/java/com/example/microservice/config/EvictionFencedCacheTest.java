@@ -0,0 +1,54 @@
+package com.example.microservice.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("EvictionFencedCache Unit Tests")
+class EvictionFencedCacheTest {
+
+  private final EvictionFencedCache cache = new EvictionFencedCache(new ConcurrentMapCache("todos"));
+
+  @Test
+  @DisplayName("Should cache what a lookup loaded when nothing was evicted meanwhile")
+  void shouldPutAfterMiss() {
+    assertNull(cache.get(1L));
+    cache.put(1L, "row");
+
+    assertEquals("row", cache.get(1L).get());
+  }
+
+  @Test
+  @DisplayName("Should undo the put of a lookup whose key was evicted while it loaded")
+  void shouldUndoPutAfterEviction() {
+    assertNull(cache.get(1L));
+    cache.evict(1L);
+    cache.put(1L, "old row");
+
+    assertNull(cache.get(1L));
+    cache.put(1L, "new row");
+    assertEquals("new row", cache.get(1L).get());
+  }
+
+  @Test
+  @DisplayName("Should undo the put of a lookup that overlapped a clear")
+  void shouldUndoPutAfterClear() {
+    assertNull(cache.get(1L));
+    cache.clear();
+    cache.put(1L, "old row");
+
+    assertNull(cache.get(1L));
+  }
+
+  @Test
+  @DisplayName("Should keep the put when another key was evicted")
+  void shouldKeepPutAfterOtherEviction() {
+    assertNull(cache.get(1L));
+    cache.evict(2L);
+    cache.put(1L, "row");
+
+    assertEquals("row", cache.get(1L).get());
+  }
+}
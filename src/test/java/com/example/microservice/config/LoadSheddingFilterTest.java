@@ -0,0 +1,91 @@
+package com.example.microservice.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.microservice.config.LoadSheddingFilter.Priority.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LoadSheddingFilter Unit Tests")
+class LoadSheddingFilterTest {
+
+  private final AdaptiveConcurrencyLimit limit =
+      new AdaptiveConcurrencyLimit(2, 2, 2, TimeUnit.SECONDS.toNanos(1), 0.9);
+  private final LoadSheddingFilter filter = new LoadSheddingFilter(limit, 0.5);
+
+  @Test
+  @DisplayName("Should classify reads, writes and bulk writes")
+  void shouldClassifyRequests() {
+    assertEquals(READ, LoadSheddingFilter.priority(new MockHttpServletRequest("GET", "/api/todos/batch")));
+    assertEquals(READ, LoadSheddingFilter.priority(new MockHttpServletRequest("HEAD", "/api/todos")));
+    assertEquals(WRITE, LoadSheddingFilter.priority(new MockHttpServletRequest("PUT", "/api/todos/1")));
+    assertEquals(BULK, LoadSheddingFilter.priority(new MockHttpServletRequest("POST", "/api/todos/batch")));
+  }
+
+  @Test
+  @DisplayName("Should shed bulk writes first and answer 503 with Retry-After once full")
+  void shouldShedBulkWritesFirst() throws Exception {
+    List<MockHttpServletResponse> inner = new ArrayList<>();
+    FilterChain nested = (request, response) -> {
+      inner.add(perform("POST", "/api/todos/batch"));
+      inner.add(perform("GET", "/api/todos"));
+      inner.add(perform("GET", "/api/health"));
+    };
+
+    MockHttpServletResponse outer = new MockHttpServletResponse();
+    filter.doFilter(new MockHttpServletRequest("GET", "/api/todos/1"), outer, nested);
+
+    assertEquals(200, outer.getStatus());
+    assertEquals(503, inner.get(0).getStatus());
+    assertEquals("1", inner.get(0).getHeader("Retry-After"));
+    assertEquals(200, inner.get(1).getStatus());
+    assertEquals(200, inner.get(2).getStatus());
+    assertEquals(1, filter.getShed(BULK));
+    assertEquals(0, filter.getShed(READ));
+    assertEquals(0, limit.getInFlight());
+  }
+
+  @Test
+  @DisplayName("Should release the slot when the chain throws")
+  void shouldReleaseOnFailure() {
+    FilterChain failing = (request, response) -> {
+      throw new ServletException("boom");
+    };
+
+    assertThrows(ServletException.class, () ->
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/todos"), new MockHttpServletResponse(), failing));
+    assertEquals(0, limit.getInFlight());
+  }
+
+  @Test
+  @DisplayName("Should serve requests when the clock reads negative")
+  void shouldServeWithNegativeClock() throws Exception {
+    AdaptiveConcurrencyLimit negative =
+        new AdaptiveConcurrencyLimit(2, 2, 2, TimeUnit.SECONDS.toNanos(1), 0.9, () -> -TimeUnit.DAYS.toNanos(1));
+    LoadSheddingFilter negativeFilter = new LoadSheddingFilter(negative, 0.5);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    negativeFilter.doFilter(new MockHttpServletRequest("GET", "/api/todos"), response, (request, res) -> {
+    });
+
+    assertEquals(200, response.getStatus());
+    assertEquals(0, negativeFilter.getShed(READ));
+    assertEquals(0, negative.getInFlight());
+  }
+
+  private MockHttpServletResponse perform(String method, String uri) throws ServletException, IOException {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    filter.doFilter(new MockHttpServletRequest(method, uri), response, (request, res) -> {
+    });
+    return response;
+  }
+}
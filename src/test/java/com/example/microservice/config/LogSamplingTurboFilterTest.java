@@ -0,0 +1,49 @@
+package com.example.microservice.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static com.example.microservice.config.LogSamplingTurboFilter.SAMPLED;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("LogSamplingTurboFilter Unit Tests")
+class LogSamplingTurboFilterTest {
+
+  private final Logger logger = new LoggerContext().getLogger("test");
+  private LogSamplingTurboFilter filter;
+
+  @BeforeEach
+  void setUp() {
+    filter = new LogSamplingTurboFilter();
+    filter.setEvery(3);
+    filter.start();
+  }
+
+  @Test
+  @DisplayName("Should keep one in N marked calls per message")
+  void shouldKeepOneInNPerMessage() {
+    assertEquals(2, passed("Fetching todo with id: {}", Level.INFO, 6));
+    assertEquals(1, passed("hello endpoint called", Level.INFO, 3));
+  }
+
+  @Test
+  @DisplayName("Should never sample warnings or unmarked calls")
+  void shouldNotSampleWarningsOrUnmarkedCalls() {
+    assertEquals(6, passed("Fetching todo with id: {}", Level.WARN, 6));
+    assertEquals(FilterReply.NEUTRAL, filter.decide(null, logger, Level.INFO, "Creating new todo: {}", null, null));
+  }
+
+  private long passed(String format, Level level, int calls) {
+    return IntStream.range(0, calls)
+        .mapToObj(i -> filter.decide(SAMPLED, logger, level, format, null, null))
+        .filter(reply -> reply == FilterReply.NEUTRAL)
+        .count();
+  }
+}
@@ -0,0 +1,43 @@
+package com.example.microservice.config;
+
+import io.swagger.v3.oas.models.OpenAPI;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(locations = "classpath:application-test.properties", properties = {
+    "springdoc.api-docs.enabled=false",
+    "springdoc.swagger-ui.enabled=false"
+})
+@DisplayName("OpenAPI Disabled Integration Tests")
+class OpenApiDisabledIntegrationTest {
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private ObjectProvider<OpenAPI> openApi;
+
+  @Test
+  @DisplayName("Should skip springdoc entirely and still serve the pre-generated spec")
+  void shouldServeOnlyStaticSpec() throws Exception {
+    assertNull(openApi.getIfAvailable());
+
+    mockMvc.perform(get("/swagger-ui/index.html"))
+        .andExpect(status().isNotFound());
+    mockMvc.perform(get("/openapi.json"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.info.title").value("Java Microservice K8s API"));
+  }
+}
@@ -0,0 +1,143 @@
+package com.example.microservice.config;
+
+import com.example.microservice.model.Todo;
+import com.example.microservice.repository.TodoRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(locations = "classpath:application-test.properties")
+@DisplayName("Response Compression Integration Tests")
+class ResponseCompressionIntegrationTest {
+
+  @LocalServerPort
+  private int port;
+
+  @Value("${api.key}")
+  private String apiKey;
+
+  @Autowired
+  private TodoRepository todoRepository;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  private final HttpClient client = HttpClient.newHttpClient();
+
+  @BeforeEach
+  void setUp() {
+    todoRepository.deleteAll();
+    List<Todo> todos = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      Todo todo = new Todo();
+      todo.setTitle("Compressible TODO " + i);
+      todo.setDescription("The same words over and over, which is what gzip is good at " + i);
+      todo.setCompleted(i % 2 == 0);
+      todos.add(todo);
+    }
+    todoRepository.saveAll(todos);
+  }
+
+  @Test
+  @DisplayName("Should gzip a large list when the client accepts it")
+  void shouldGzipLargeList() throws Exception {
+    HttpResponse<InputStream> response = get("/api/todos", "gzip");
+
+    assertEquals(200, response.statusCode());
+    assertEquals("gzip", response.headers().firstValue("Content-Encoding").orElse(null));
+    List<String> vary = response.headers().allValues("Vary");
+    assertTrue(vary.stream().anyMatch(value -> value.toLowerCase().contains("accept-encoding")), vary.toString());
+    assertTrue(vary.stream().anyMatch(value -> value.toLowerCase().matches("(.*, *)?accept(,.*)?")), vary.toString());
+    try (InputStream body = new GZIPInputStream(response.body())) {
+      JsonNode todos = objectMapper.readTree(body);
+      assertEquals(50, todos.size());
+    }
+  }
+
+  @Test
+  @DisplayName("Should send identity without Accept-Encoding or below the size threshold")
+  void shouldNotCompressWhenNotWorthIt() throws Exception {
+    HttpResponse<InputStream> identity = get("/api/todos", null);
+    assertFalse(identity.headers().firstValue("Content-Encoding").isPresent());
+    try (InputStream body = identity.body()) {
+      assertEquals(50, objectMapper.readTree(body).size());
+    }
+
+    HttpResponse<InputStream> small = get("/api/todos?limit=1", "gzip");
+    assertEquals(200, small.statusCode());
+    assertFalse(small.headers().firstValue("Content-Encoding").isPresent());
+    assertTrue(small.headers().firstValue("Content-Length").isPresent());
+    small.body().close();
+  }
+
+  @Test
+  @DisplayName("Should still deliver change events one by one")
+  void shouldStreamChangesUncompressed() throws Exception {
+    // The headers go out with the first event; keep writing until the subscription has seen one
+    CompletableFuture<HttpResponse<InputStream>> subscription = client.sendAsync(request("/api/todos/changes", "gzip"),
+        HttpResponse.BodyHandlers.ofInputStream());
+    Todo todo = new Todo();
+    todo.setTitle("Streamed TODO");
+    for (int attempt = 0; attempt < 50 && !subscription.isDone(); attempt++) {
+      HttpResponse<Void> created = client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/todos"))
+          .header("X-API-Key", apiKey)
+          .header("Content-Type", "application/json")
+          .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(todo)))
+          .build(), HttpResponse.BodyHandlers.discarding());
+      assertEquals(201, created.statusCode());
+      Thread.sleep(100);
+    }
+
+    HttpResponse<InputStream> events = subscription.get(5, TimeUnit.SECONDS);
+    assertEquals(200, events.statusCode());
+    assertFalse(events.headers().firstValue("Content-Encoding").isPresent());
+    BufferedReader lines = new BufferedReader(new InputStreamReader(events.body(), StandardCharsets.UTF_8));
+    String line = lines.readLine();
+    while (line != null && !line.startsWith("data:")) {
+      line = lines.readLine();
+    }
+    assertNotNull(line);
+    assertTrue(line.contains("Streamed TODO"), line);
+  }
+
+  private HttpResponse<InputStream> get(String path, String acceptEncoding) throws IOException, InterruptedException {
+    return client.send(request(path, acceptEncoding), HttpResponse.BodyHandlers.ofInputStream());
+  }
+
+  private HttpRequest request(String path, String acceptEncoding) {
+    HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+        .header("X-API-Key", apiKey);
+    if (acceptEncoding != null) {
+      request.header("Accept-Encoding", acceptEncoding);
+    }
+    return request.build();
+  }
+}
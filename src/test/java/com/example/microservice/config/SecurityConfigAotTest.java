@@ -0,0 +1,38 @@
+package com.example.microservice.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.generate.ClassNameGenerator;
+import org.springframework.aot.generate.DefaultGenerationContext;
+import org.springframework.aot.generate.GeneratedFiles;
+import org.springframework.aot.generate.InMemoryGeneratedFiles;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.aot.ApplicationContextAotGenerator;
+import org.springframework.javapoet.ClassName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("SecurityConfig AOT Tests")
+class SecurityConfigAotTest {
+
+  // The startup image is built by process-aot without api.keys-file; a bean missing from the generated
+  // definitions could not be brought back by setting API_KEYS_FILE on the pod
+  @Test
+  @DisplayName("Should keep the API keys file bean when built without api.keys-file")
+  void shouldKeepApiKeysFileBean() throws Exception {
+    AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+    context.register(SecurityConfig.class);
+    InMemoryGeneratedFiles files = new InMemoryGeneratedFiles();
+    DefaultGenerationContext generationContext = new DefaultGenerationContext(
+        new ClassNameGenerator(ClassName.get("com.example.microservice", "Application")), files, new RuntimeHints());
+
+    new ApplicationContextAotGenerator().processAheadOfTime(context, generationContext);
+    generationContext.writeGeneratedContent();
+
+    String definitions = files.getGeneratedFileContent(GeneratedFiles.Kind.SOURCE,
+        "com/example/microservice/config/SecurityConfig__BeanDefinitions.java");
+    assertNotNull(definitions);
+    assertTrue(definitions.contains("getApiKeysFileBeanDefinition"));
+  }
+}
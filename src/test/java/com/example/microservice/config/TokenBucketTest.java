@@ -0,0 +1,57 @@
+package com.example.microservice.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TokenBucket Unit Tests")
+class TokenBucketTest {
+
+  private final AtomicLong clock = new AtomicLong(TimeUnit.SECONDS.toNanos(42));
+
+  @Test
+  @DisplayName("Should allow a full burst, then refuse with the time until the next token")
+  void shouldAllowBurstThenRefuse() {
+    TokenBucket bucket = new TokenBucket(10, 3, clock::get);
+
+    assertEquals(0, bucket.tryAcquire());
+    assertEquals(0, bucket.tryAcquire());
+    assertEquals(0, bucket.tryAcquire());
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(100), bucket.tryAcquire());
+  }
+
+  @Test
+  @DisplayName("Should refill at the configured rate")
+  void shouldRefillAtRate() {
+    TokenBucket bucket = new TokenBucket(10, 1, clock::get);
+    assertEquals(0, bucket.tryAcquire());
+    assertTrue(bucket.tryAcquire() > 0);
+
+    clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(60));
+    assertEquals(TimeUnit.MILLISECONDS.toNanos(40), bucket.tryAcquire());
+
+    clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(40));
+    assertEquals(0, bucket.tryAcquire());
+  }
+
+  @Test
+  @DisplayName("Should not bank tokens beyond the burst while idle")
+  void shouldCapIdleTokensAtBurst() {
+    TokenBucket bucket = new TokenBucket(10, 2, clock::get);
+    clock.addAndGet(TimeUnit.MINUTES.toNanos(5));
+
+    assertEquals(0, bucket.tryAcquire());
+    assertEquals(0, bucket.tryAcquire());
+    assertTrue(bucket.tryAcquire() > 0);
+  }
+
+  @Test
+  @DisplayName("Should reject a non-positive rate")
+  void shouldRejectInvalidRate() {
+    assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1));
+  }
+}
@@ -0,0 +1,25 @@
+package com.example.microservice.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("VirtualThreadsRuntimeCheck Unit Tests")
+class VirtualThreadsRuntimeCheckTest {
+
+  @Test
+  @DisplayName("Should refuse to start with virtual threads on a JVM older than 21")
+  void shouldFailBeforeJava21() {
+    IllegalStateException thrown = assertThrows(IllegalStateException.class,
+        () -> new VirtualThreadsRuntimeCheck(true, 17).afterPropertiesSet());
+    assertTrue(thrown.getMessage().contains("Java 17"));
+  }
+
+  @Test
+  @DisplayName("Should start on Java 21 or with virtual threads off")
+  void shouldPassOtherwise() {
+    assertDoesNotThrow(() -> new VirtualThreadsRuntimeCheck(true, 21).afterPropertiesSet());
+    assertDoesNotThrow(() -> new VirtualThreadsRuntimeCheck(false, 17).afterPropertiesSet());
+  }
+}
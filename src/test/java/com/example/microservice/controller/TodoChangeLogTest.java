@@ -0,0 +1,166 @@
+package com.example.microservice.controller;
+
+import com.example.microservice.model.Todo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TodoChangeLog Unit Tests")
+class TodoChangeLogTest {
+
+  private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().modules(new JavaTimeModule()).build();
+
+  @Test
+  @DisplayName("Should push changes to live subscribers")
+  void shouldPushChangesToSubscribers() {
+    TodoChangeLog log = changeLog(Runnable::run, 16);
+    RecordingEmitter emitter = subscribe(log, null);
+
+    log.created(todo(1L));
+    log.deleted(1L);
+
+    assertEquals(2, emitter.events.size());
+    assertTrue(emitter.events.get(0).contains("event:created\n"));
+    assertTrue(emitter.events.get(0).contains("\"title\":\"TODO 1\""));
+    assertTrue(emitter.events.get(1).contains("event:deleted\ndata:{\"id\":1}"));
+  }
+
+  @Test
+  @DisplayName("Should replay changes missed since Last-Event-ID")
+  void shouldReplayMissedChanges() {
+    TodoChangeLog log = changeLog(Runnable::run, 16);
+    RecordingEmitter first = subscribe(log, null);
+    log.created(todo(1L));
+    String lastEventId = eventId(first.events.get(0));
+
+    log.completed(1L);
+    log.deleted(1L);
+    RecordingEmitter resumed = subscribe(log, lastEventId);
+
+    assertEquals(2, resumed.events.size());
+    assertTrue(resumed.events.get(0).contains("event:completed\n"));
+    assertTrue(resumed.events.get(1).contains("event:deleted\n"));
+  }
+
+  @Test
+  @DisplayName("Should send reset when the resume point left the buffer")
+  void shouldResetWhenResumePointIsGone() {
+    TodoChangeLog log = changeLog(Runnable::run, 4);
+    RecordingEmitter first = subscribe(log, null);
+    log.created(todo(1L));
+    String lastEventId = eventId(first.events.get(0));
+    for (long id = 2; id <= 6; id++) {
+      log.created(todo(id));
+    }
+
+    RecordingEmitter stale = subscribe(log, lastEventId);
+    RecordingEmitter foreign = subscribe(log, "previous-run-42");
+
+    assertEquals(1, stale.events.size());
+    assertTrue(stale.events.get(0).contains("event:" + TodoChangeLog.RESET + "\n"));
+    assertTrue(foreign.events.get(0).contains("event:" + TodoChangeLog.RESET + "\n"));
+  }
+
+  @Test
+  @DisplayName("Should drop subscribers that fall behind")
+  void shouldDropSlowSubscribers() {
+    List<Runnable> pending = new ArrayList<>();
+    TodoChangeLog log = changeLog(pending::add, 4);
+    RecordingEmitter slow = subscribe(log, null);
+
+    for (long id = 1; id <= 5; id++) {
+      log.created(todo(id));
+    }
+    assertEquals(0, log.subscriberCount());
+
+    pending.forEach(Runnable::run);
+    assertTrue(slow.completed);
+    assertTrue(slow.events.isEmpty());
+  }
+
+  @Test
+  @DisplayName("Should drop subscribers whose drain the saturated sender pool rejects")
+  void shouldDropSubscribersWhenSendersAreSaturated() {
+    TodoChangeLog log = changeLog(runnable -> {
+      throw new RejectedExecutionException();
+    }, 16);
+    RecordingEmitter live = subscribe(log, null);
+    log.created(todo(1L));
+    assertEquals(0, log.subscriberCount());
+
+    RecordingEmitter resumed = subscribe(log, "previous-run-42");
+    assertTrue(resumed.completed);
+    assertEquals(0, log.subscriberCount());
+    assertTrue(live.events.isEmpty());
+  }
+
+  @Test
+  @DisplayName("Should send on its own named threads")
+  void shouldSendOnOwnThreads() throws Exception {
+    TodoChangeLog log = new TodoChangeLog(objectMapper, 16, 16, Duration.ofMinutes(1), 1, 16);
+    try {
+      RecordingEmitter emitter = subscribe(log, null);
+      log.created(todo(1L));
+
+      long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+      while (emitter.thread == null && System.nanoTime() < deadline) {
+        Thread.sleep(5);
+      }
+      assertEquals("todo-changes-1", emitter.thread);
+    } finally {
+      log.destroy();
+    }
+  }
+
+  private TodoChangeLog changeLog(Executor executor, int size) {
+    return new TodoChangeLog(objectMapper, executor, size, size, Duration.ofMinutes(1));
+  }
+
+  private static RecordingEmitter subscribe(TodoChangeLog log, String lastEventId) {
+    RecordingEmitter emitter = new RecordingEmitter();
+    log.register(log.new Subscriber(emitter, 4), lastEventId);
+    return emitter;
+  }
+
+  private static String eventId(String event) {
+    return event.substring(event.indexOf("id:") + 3, event.indexOf('\n'));
+  }
+
+  private static Todo todo(Long id) {
+    Todo todo = new Todo();
+    todo.setId(id);
+    todo.setTitle("TODO " + id);
+    return todo;
+  }
+
+  private static class RecordingEmitter extends SseEmitter {
+
+    private final List<String> events = new ArrayList<>();
+    private volatile boolean completed;
+    private volatile String thread;
+
+    @Override
+    public void send(SseEventBuilder builder) {
+      StringBuilder event = new StringBuilder();
+      builder.build().forEach(part -> event.append(part.getData()));
+      events.add(event.toString());
+      thread = Thread.currentThread().getName();
+    }
+
+    @Override
+    public void complete() {
+      completed = true;
+    }
+  }
+}
@@ -1,8 +1,13 @@
 package com.example.microservice.controller;
 
+import com.example.microservice.config.CacheConfig;
 import com.example.microservice.model.Todo;
+import com.example.microservice.repository.TodoCounters;
 import com.example.microservice.repository.TodoRepository;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -10,11 +15,30 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationContext;
 import org.springframework.http.MediaType;
+import org.springframework.orm.jpa.support.OpenEntityManagerInViewInterceptor;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -33,6 +57,15 @@ class TodoControllerIntegrationTest {
   @Autowired
   private ObjectMapper objectMapper;
 
+  @Autowired
+  private CacheManager cacheManager;
+
+  @Autowired
+  private ApplicationContext context;
+
+  @Autowired
+  private TodoCounters counters;
+
   @Value("${api.key}")
   private String API_KEY;
 
@@ -62,6 +95,28 @@ class TodoControllerIntegrationTest {
         .andExpect(jsonPath("$.updatedAt").exists());
   }
 
+  @Test
+  @DisplayName("Should create a new TODO from a body that carries an id")
+  void shouldCreateTodoIgnoringId() throws Exception {
+    Todo existing = new Todo();
+    existing.setTitle("Existing TODO");
+    existing = todoRepository.save(existing);
+    String body = mockMvc.perform(get("/api/todos/" + existing.getId())
+        .header("X-API-Key", API_KEY))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+
+    mockMvc.perform(post("/api/todos")
+        .header("X-API-Key", API_KEY)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(body))
+        .andExpect(status().isCreated())
+        .andExpect(jsonPath("$.id").value(not(existing.getId().intValue())))
+        .andExpect(jsonPath("$.title").value("Existing TODO"));
+
+    assertEquals(2, todoRepository.count());
+  }
+
   @Test
   @DisplayName("Should fail to create TODO without authentication")
   void shouldFailToCreateTodoWithoutAuth() throws Exception {
@@ -137,6 +192,106 @@ class TodoControllerIntegrationTest {
         .andExpect(jsonPath("$.title").value("Test TODO"));
   }
 
+  @Test
+  @DisplayName("Should revalidate a TODO with its ETag")
+  void shouldRevalidateTodoWithETag() throws Exception {
+    Todo todo = new Todo();
+    todo.setTitle("Test TODO");
+    Todo saved = todoRepository.save(todo);
+
+    String eTag = mockMvc.perform(get("/api/todos/" + saved.getId())
+        .header("X-API-Key", API_KEY))
+        .andExpect(status().isOk())
+        .andExpect(header().exists("Last-Modified"))
+        .andExpect(header().stringValues("Cache-Control", "no-cache, private"))
+        .andReturn().getResponse().getHeader("ETag");
+
+    mockMvc.perform(get("/api/todos/" + saved.getId())
+        .header("X-API-Key", API_KEY)
+        .header("If-None-Match", eTag))
+        .andExpect(status().isNotModified())
+        .andExpect(content().string(""));
+
+    mockMvc.perform(patch("/api/todos/" + saved.getId() + "/complete")
+        .header("X-API-Key", API_KEY))
+        .andExpect(status().isOk());
+
+    mockMvc.perform(get("/api/todos/" + saved.getId())
+        .header("X-API-Key", API_KEY)
+        .header("If-None-Match", eTag))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", not(eTag)))
+        .andExpect(jsonPath("$.completed").value(true));
+  }
+
+  @Test
+  @DisplayName("Should reject writes carrying a stale ETag")
+  void shouldRejectWritesWithStaleETag() throws Exception {
+    Todo todo = new Todo();
+    todo.setTitle("Original Title");
+    Todo saved = todoRepository.save(todo);
+
+    String eTag = mockMvc.perform(get("/api/todos/" + saved.getId())
+        .header("X-API-Key", API_KEY))
+        .andReturn().getResponse().getHeader("ETag");
+
+    Todo update = new Todo();
+    update.setTitle("Updated Title");
+    update.setCompleted(false);
+    mockMvc.perform(put("/api/todos/" + saved.getId())
+        .header("X-API-Key", API_KEY)
+        .header("If-Match", eTag)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(update)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.title").value("Updated Title"))
+        .andExpect(jsonPath("$.version").value(1));
+
+    mockMvc.perform(patch("/api/todos/" + saved.getId() + "/complete")
+        .header("X-API-Key", API_KEY)
+        .header("If-Match", eTag))
+        .andExpect(status().isPreconditionFailed());
+
+    mockMvc.perform(patch("/api/todos/" + saved.getId() + "/complete")
+        .header("X-API-Key", API_KEY)
+        .header("If-Match", TodoETag.of(saved.getId(), 1L))
+        .header("Prefer", "return=minimal"))
+        .andExpect(status().isNoContent())
+        .andExpect(header().string("ETag", TodoETag.of(saved.getId(), 2L)));
+
+    assertTrue(todoRepository.findById(saved.getId()).orElseThrow().getCompleted());
+  }
+
+  @Test
+  @DisplayName("Should revalidate the TODO list until the table changes")
+  void shouldRevalidateTodoListUntilTableChanges() throws Exception {
+    Todo todo = new Todo();
+    todo.setTitle("TODO 1");
+    todoRepository.save(todo);
+
+    String eTag = mockMvc.perform(get("/api/todos")
+        .header("X-API-Key", API_KEY))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getHeader("ETag");
+
+    mockMvc.perform(get("/api/todos")
+        .header("X-API-Key", API_KEY)
+        .header("If-None-Match", eTag))
+        .andExpect(status().isNotModified());
+
+    mockMvc.perform(delete("/api/todos/batch")
+        .header("X-API-Key", API_KEY)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(List.of(todo.getId()))))
+        .andExpect(status().isOk());
+
+    mockMvc.perform(get("/api/todos")
+        .header("X-API-Key", API_KEY)
+        .header("If-None-Match", eTag))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$", hasSize(0)));
+  }
+
   @Test
   @DisplayName("Should return 404 for non-existent TODO")
   void shouldReturn404ForNonExistentTodo() throws Exception {
@@ -169,6 +324,13 @@ class TodoControllerIntegrationTest {
         .andExpect(jsonPath("$.completed").value(true));
   }
 
+  // The single-statement writes bypass the persistence context; a request-wide one would serve stale entities
+  @Test
+  @DisplayName("Should not keep a persistence context open for the whole request")
+  void shouldNotOpenEntityManagerInView() {
+    assertEquals(0, context.getBeanNamesForType(OpenEntityManagerInViewInterceptor.class).length);
+  }
+
   @Test
   @DisplayName("Should mark TODO as completed")
   void shouldMarkTodoAsCompleted() throws Exception {
@@ -208,4 +370,486 @@ class TodoControllerIntegrationTest {
         .andExpect(status().isOk())
         .andExpect(jsonPath("$", hasSize(0)));
   }
+
+  @Test
+  @DisplayName("Should page through TODOs following the next link")
+  void shouldPageThroughTodos() throws Exception {
+    for (int i = 1; i <= 3; i++) {
+      Todo todo = new Todo();
+      todo.setTitle("TODO " + i);
+      todoRepository.save(todo);
+    }
+
+    String nextLink = mockMvc.perform(get("/api/todos?limit=2")
+        .header("X-API-Key", API_KEY))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$", hasSize(2)))
+        .andExpect(jsonPath("$[0].title").value("TODO 1"))
+        .andExpect(header().string("Link", containsString("rel=\"next\"")))
+        .andReturn().getResponse().getHeader("Link");
+
+    String nextUri = nextLink.substring(1, nextLink.indexOf('>'));
+    mockMvc.perform(get(nextUri)
+        .header("X-API-Key", API_KEY))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$", hasSize(1)))
+        .andExpect(jsonPath("$[0].title").value("TODO 3"))
+        .andExpect(header().doesNotExist("Link"));
+  }
+
+  @Test
+  @DisplayName("Should list TODO summaries without description")
+  void shouldListTodoSummaries() throws Exception {
+    Todo todo = new Todo();
+    todo.setTitle("TODO 1");
+    todo.setDescription("Description 1");
+    todoRepository.save(todo);
+
+    mockMvc.perform(get("/api/todos?fields=id,title")
+        .header("X-API-Key", API_KEY))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].title").value("TODO 1"))
+        .andExpect(jsonPath("$[0].description").doesNotExist());
+
+    mockMvc.perform(get("/api/todos?fields=title,description")
+        .header("X-API-Key", API_KEY))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].description").value("Description 1"));
+
+    mockMvc.perform(get("/api/todos?fields=owner")
+        .header("X-API-Key", API_KEY))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("Should stream TODO changes as Server-Sent Events")
+  void shouldStreamTodoChanges() throws Exception {
+    MvcResult subscription = mockMvc.perform(get("/api/todos/changes")
+        .header("X-API-Key", API_KEY))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    Todo todo = new Todo();
+    todo.setTitle("Streamed TODO");
+    mockMvc.perform(post("/api/todos")
+        .header("X-API-Key", API_KEY)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(todo)))
+        .andExpect(status().isCreated());
+
+    String stream = "";
+    for (int attempt = 0; attempt < 50 && !stream.contains("Streamed TODO"); attempt++) {
+      Thread.sleep(100);
+      stream = subscription.getResponse().getContentAsString();
+    }
+    assertTrue(stream.contains("event:created\n"), stream);
+    assertTrue(stream.contains("\"title\":\"Streamed TODO\""), stream);
+    assertEquals(MediaType.TEXT_EVENT_STREAM_VALUE, subscription.getResponse().getContentType());
+  }
+
+  @Test
+  @DisplayName("Should export TODOs as NDJSON")
+  void shouldExportTodosAsNdjson() throws Exception {
+    Todo todo1 = new Todo();
+    todo1.setTitle("TODO 1");
+    todo1.setCompleted(true);
+    todoRepository.save(todo1);
+
+    Todo todo2 = new Todo();
+    todo2.setTitle("TODO 2");
+    todoRepository.save(todo2);
+
+    MvcResult started = mockMvc.perform(get("/api/todos/export")
+        .header("X-API-Key", API_KEY))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+
+    String body = mockMvc.perform(asyncDispatch(started))
+        .andExpect(status().isOk())
+        .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+        .andReturn().getResponse().getContentAsString();
+
+    String[] lines = body.split("\n");
+    assertEquals(2, lines.length);
+    assertEquals("TODO 1", objectMapper.readTree(lines[0]).get("title").asText());
+    assertEquals("TODO 2", objectMapper.readTree(lines[1]).get("title").asText());
+    assertTrue(body.endsWith("\n"));
+  }
+
+  @Test
+  @DisplayName("Should export every TODO across keyset pages")
+  void shouldExportAcrossPages() throws Exception {
+    List<Todo> todos = new ArrayList<>();
+    for (int i = 0; i < 2 * TodoRepository.EXPORT_PAGE_SIZE + 1; i++) {
+      Todo todo = new Todo();
+      todo.setTitle("TODO " + i);
+      todo.setCompleted(i % 2 == 0);
+      todos.add(todo);
+    }
+    todoRepository.saveAll(todos);
+
+    MvcResult started = mockMvc.perform(get("/api/todos/export")
+        .header("X-API-Key", API_KEY))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    String[] lines = mockMvc.perform(asyncDispatch(started))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString().split("\n");
+
+    assertEquals(todos.size(), lines.length);
+    assertEquals("TODO 0", objectMapper.readTree(lines[0]).get("title").asText());
+    assertEquals("TODO " + (todos.size() - 1), objectMapper.readTree(lines[lines.length - 1]).get("title").asText());
+
+    started = mockMvc.perform(get("/api/todos/export?completed=true")
+        .header("X-API-Key", API_KEY))
+        .andExpect(request().asyncStarted())
+        .andReturn();
+    String completed = mockMvc.perform(asyncDispatch(started))
+        .andExpect(status().isOk())
+        .andReturn().getResponse().getContentAsString();
+    assertEquals(TodoRepository.EXPORT_PAGE_SIZE + 1, completed.split("\n").length);
+  }
+
+  @Test
+  @DisplayName("Should create TODOs in batch with per-item results")
+  void shouldCreateTodosInBatch() throws Exception {
+    Todo todo1 = new Todo();
+    todo1.setTitle("Batch TODO 1");
+    Todo invalid = new Todo();
+    invalid.setDescription("Missing title");
+    Todo todo2 = new Todo();
+    todo2.setTitle("Batch TODO 2");
+
+    mockMvc.perform(post("/api/todos/batch")
+        .header("X-API-Key", API_KEY)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(List.of(todo1, invalid, todo2))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$", hasSize(3)))
+        .andExpect(jsonPath("$[0].status").value(201))
+        .andExpect(jsonPath("$[0].id").exists())
+        .andExpect(jsonPath("$[1].index").value(1))
+        .andExpect(jsonPath("$[1].status").value(400))
+        .andExpect(jsonPath("$[1].error").value("title is required"))
+        .andExpect(jsonPath("$[2].status").value(201));
+
+    assertEquals(2, todoRepository.count());
+  }
+
+  @Test
+  @DisplayName("Should update TODOs in batch with per-item results")
+  void shouldUpdateTodosInBatch() throws Exception {
+    Todo todo = new Todo();
+    todo.setTitle("Original Title");
+    Todo saved = todoRepository.save(todo);
+
+    Todo update = new Todo();
+    update.setId(saved.getId());
+    update.setTitle("Updated Title");
+    update.setCompleted(true);
+    Todo missing = new Todo();
+    missing.setId(saved.getId() + 1000);
+    missing.setTitle("Missing");
+
+    mockMvc.perform(put("/api/todos/batch")
+        .header("X-API-Key", API_KEY)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(List.of(update, missing))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].status").value(200))
+        .andExpect(jsonPath("$[0].id").value(saved.getId()))
+        .andExpect(jsonPath("$[1].status").value(404));
+
+    Todo reloaded = todoRepository.findById(saved.getId()).orElseThrow();
+    assertEquals("Updated Title", reloaded.getTitle());
+    assertTrue(reloaded.getCompleted());
+  }
+
+  @Test
+  @DisplayName("Should delete TODOs in batch with per-item results")
+  void shouldDeleteTodosInBatch() throws Exception {
+    Todo todo = new Todo();
+    todo.setTitle("TODO to Delete");
+    Todo saved = todoRepository.save(todo);
+
+    mockMvc.perform(delete("/api/todos/batch")
+        .header("X-API-Key", API_KEY)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(List.of(saved.getId(), saved.getId() + 1000))))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].status").value(204))
+        .andExpect(jsonPath("$[1].status").value(404));
+
+    assertEquals(0, todoRepository.count());
+  }
+
+  @Test
+  @DisplayName("Should cache TODO lookups and evict them on update")
+  void shouldCacheTodoLookupsAndEvictOnUpdate() throws Exception {
+    Todo todo = new Todo();
+    todo.setTitle("Cached TODO");
+    Todo saved = todoRepository.save(todo);
+    Cache cache = cacheManager.getCache(CacheConfig.TODOS_CACHE);
+
+    mockMvc.perform(get("/api/todos/" + saved.getId())
+        .header("X-API-Key", API_KEY))
+        .andExpect(status().isOk());
+    assertNotNull(cache.get(saved.getId()));
+
+    Todo updated = new Todo();
+    updated.setTitle("Updated TODO");
+    updated.setCompleted(false);
+    mockMvc.perform(put("/api/todos/" + saved.getId())
+        .header("X-API-Key", API_KEY)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(updated)))
+        .andExpect(status().isOk());
+    assertNull(cache.get(saved.getId()));
+
+    mockMvc.perform(get("/api/todos/" + saved.getId())
+        .header("X-API-Key", API_KEY))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.title").value("Updated TODO"));
+  }
+
+  @Test
+  @DisplayName("Should evict only the deleted TODO from the cache")
+  void shouldEvictOnlyDeletedTodo() throws Exception {
+    Todo first = new Todo();
+    first.setTitle("First TODO");
+    first = todoRepository.save(first);
+    Todo second = new Todo();
+    second.setTitle("Second TODO");
+    second = todoRepository.save(second);
+    Cache cache = cacheManager.getCache(CacheConfig.TODOS_CACHE);
+    for (Todo todo : List.of(first, second)) {
+      mockMvc.perform(get("/api/todos/" + todo.getId())
+          .header("X-API-Key", API_KEY))
+          .andExpect(status().isOk());
+    }
+
+    mockMvc.perform(delete("/api/todos/" + first.getId())
+        .header("X-API-Key", API_KEY))
+        .andExpect(status().isNoContent());
+
+    assertNull(cache.get(first.getId()));
+    assertNotNull(cache.get(second.getId()));
+  }
+
+  @Test
+  @DisplayName("Should find TODOs by word prefix and follow writes")
+  void shouldSearchTodosAndFollowWrites() throws Exception {
+    Long groceries = create("Comprar mantimentos", "leite e pão para a semana");
+    Long bakery = create("Ligar para a padaria", "encomendar pão");
+
+    mockMvc.perform(get("/api/todos/search?q=PAO")
+        .header("X-API-Key", API_KEY))
+        .andExpect(status().isOk())
+        .andExpect(header().exists("ETag"))
+        .andExpect(jsonPath("$", hasSize(2)))
+        .andExpect(jsonPath("$[*].id", containsInAnyOrder(groceries.intValue(), bakery.intValue())));
+
+    mockMvc.perform(get("/api/todos/search?q=padar liga")
+        .header("X-API-Key", API_KEY))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$", hasSize(1)))
+        .andExpect(jsonPath("$[0].title").value("Ligar para a padaria"));
+
+    Todo renamed = new Todo();
+    renamed.setTitle("Ligar para o banco");
+    renamed.setCompleted(false);
+    mockMvc.perform(put("/api/todos/" + bakery)
+        .header("X-API-Key", API_KEY)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(renamed)))
+        .andExpect(status().isOk());
+    mockMvc.perform(delete("/api/todos/" + groceries)
+        .header("X-API-Key", API_KEY))
+        .andExpect(status().isNoContent());
+
+    mockMvc.perform(get("/api/todos/search?q=pao")
+        .header("X-API-Key", API_KEY))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$", hasSize(0)));
+    mockMvc.perform(get("/api/todos/search?q=banco")
+        .header("X-API-Key", API_KEY))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].id").value(bakery.intValue()));
+  }
+
+  @Test
+  @DisplayName("Should page through search results following the next link")
+  void shouldPageThroughSearchResults() throws Exception {
+    for (int i = 1; i <= 3; i++) {
+      create("Revisar capítulo " + i, null);
+    }
+
+    String nextLink = mockMvc.perform(get("/api/todos/search?q=capitulo&limit=2")
+        .header("X-API-Key", API_KEY))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$", hasSize(2)))
+        .andExpect(header().string("Link", containsString("rel=\"next\"")))
+        .andReturn().getResponse().getHeader("Link");
+
+    mockMvc.perform(get(nextLink.substring(1, nextLink.indexOf('>')))
+        .header("X-API-Key", API_KEY))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$", hasSize(1)))
+        .andExpect(header().doesNotExist("Link"));
+  }
+
+  @Test
+  @DisplayName("Should reject a blank search")
+  void shouldRejectBlankSearch() throws Exception {
+    mockMvc.perform(get("/api/todos/search?q=")
+        .header("X-API-Key", API_KEY))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  @DisplayName("Should read and write TODOs as CBOR and Smile when asked to")
+  void shouldNegotiateBinaryFormats() throws Exception {
+    ObjectMapper cbor = new ObjectMapper(new CBORFactory());
+    ObjectMapper smile = new ObjectMapper(new SmileFactory());
+    MediaType cborType = MediaType.parseMediaType("application/cbor");
+    MediaType smileType = MediaType.parseMediaType("application/x-jackson-smile");
+
+    byte[] created = mockMvc.perform(post("/api/todos")
+        .header("X-API-Key", API_KEY)
+        .contentType(cborType)
+        .accept(cborType)
+        .content(cbor.writeValueAsBytes(Map.of("title", "Binary TODO", "completed", false))))
+        .andExpect(status().isCreated())
+        .andExpect(content().contentType(cborType))
+        .andReturn().getResponse().getContentAsByteArray();
+    JsonNode todo = cbor.readTree(created);
+    assertEquals("Binary TODO", todo.get("title").asText());
+    // Same Jackson settings as JSON: ISO dates, not timestamps
+    assertTrue(todo.get("createdAt").isTextual());
+
+    byte[] list = mockMvc.perform(get("/api/todos")
+        .header("X-API-Key", API_KEY)
+        .accept(smileType))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(smileType))
+        .andExpect(header().stringValues("Vary", hasItem(containsString("Accept"))))
+        .andReturn().getResponse().getContentAsByteArray();
+    assertEquals(todo.get("id").asLong(), smile.readTree(list).get(0).get("id").asLong());
+
+    mockMvc.perform(get("/api/todos/" + todo.get("id").asLong())
+        .header("X-API-Key", API_KEY))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+        .andExpect(jsonPath("$.title").value("Binary TODO"));
+  }
+
+  @Test
+  @DisplayName("Should keep stats in step with every kind of write")
+  void shouldKeepStatsInStepWithWrites() throws Exception {
+    // setUp and other tests write through the repository, behind the counters' back
+    counters.reconcile();
+    Long first = create("Stats 1", null);
+    Long second = create("Stats 2", null);
+    Long third = create("Stats 3", null);
+    mockMvc.perform(post("/api/todos/batch")
+        .header("X-API-Key", API_KEY)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("[{\"title\":\"Batch open\"},{\"title\":\"Batch done\",\"completed\":true}]"))
+        .andExpect(status().isOk());
+    mockMvc.perform(patch("/api/todos/" + first + "/complete").header("X-API-Key", API_KEY))
+        .andExpect(status().isOk());
+    // Completing twice and rewriting a completed todo as completed move nothing
+    mockMvc.perform(patch("/api/todos/" + first + "/complete").header("X-API-Key", API_KEY))
+        .andExpect(status().isOk());
+    mockMvc.perform(put("/api/todos/" + first)
+        .header("X-API-Key", API_KEY)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"title\":\"Stats 1\",\"completed\":true}"))
+        .andExpect(status().isOk());
+    mockMvc.perform(put("/api/todos/batch")
+        .header("X-API-Key", API_KEY)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("[{\"id\":" + second + ",\"title\":\"Stats 2\",\"completed\":true}]"))
+        .andExpect(status().isOk());
+    mockMvc.perform(delete("/api/todos/" + third).header("X-API-Key", API_KEY))
+        .andExpect(status().isNoContent());
+    mockMvc.perform(delete("/api/todos/batch")
+        .header("X-API-Key", API_KEY)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("[" + second + ", 999999]"))
+        .andExpect(status().isOk());
+
+    String today = LocalDate.now().toString();
+    String stats = mockMvc.perform(get("/api/todos/stats?days=3").header("X-API-Key", API_KEY))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.total").value(3))
+        .andExpect(jsonPath("$.completed").value(2))
+        .andExpect(jsonPath("$.open").value(1))
+        .andExpect(jsonPath("$.createdPerDay.length()").value(3))
+        .andExpect(jsonPath("$.createdPerDay['" + today + "']").value(3))
+        .andReturn().getResponse().getContentAsString();
+
+    counters.reconcile();
+    mockMvc.perform(get("/api/todos/stats?days=3").header("X-API-Key", API_KEY))
+        .andExpect(content().json(stats, true));
+  }
+
+  @Test
+  @DisplayName("Should count a transition once when writers race on the same TODO")
+  void shouldCountRacingWritesOnce() throws Exception {
+    Long id = create("Contended", null);
+    counters.reconcile();
+    ExecutorService pool = Executors.newFixedThreadPool(8);
+    try {
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<Integer>> completions = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        completions.add(pool.submit(() -> {
+          start.await();
+          return mockMvc.perform(patch("/api/todos/" + id + "/complete").header("X-API-Key", API_KEY))
+              .andReturn().getResponse().getStatus();
+        }));
+      }
+      start.countDown();
+      for (Future<Integer> completion : completions) {
+        assertEquals(200, completion.get(10, TimeUnit.SECONDS));
+      }
+
+      CountDownLatch deleteStart = new CountDownLatch(1);
+      List<Future<Integer>> deletions = new ArrayList<>();
+      for (int i = 0; i < 8; i++) {
+        deletions.add(pool.submit(() -> {
+          deleteStart.await();
+          return mockMvc.perform(delete("/api/todos/" + id).header("X-API-Key", API_KEY))
+              .andReturn().getResponse().getStatus();
+        }));
+      }
+      deleteStart.countDown();
+      int deleted = 0;
+      for (Future<Integer> deletion : deletions) {
+        deleted += deletion.get(10, TimeUnit.SECONDS) == 204 ? 1 : 0;
+      }
+      assertEquals(1, deleted);
+    } finally {
+      pool.shutdownNow();
+    }
+
+    mockMvc.perform(get("/api/todos/stats?days=1").header("X-API-Key", API_KEY))
+        .andExpect(jsonPath("$.total").value(0))
+        .andExpect(jsonPath("$.completed").value(0))
+        .andExpect(jsonPath("$.open").value(0));
+  }
+
+  private Long create(String title, String description) throws Exception {
+    Todo todo = new Todo();
+    todo.setTitle(title);
+    todo.setDescription(description);
+    String body = mockMvc.perform(post("/api/todos")
+        .header("X-API-Key", API_KEY)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(todo)))
+        .andExpect(status().isCreated())
+        .andReturn().getResponse().getContentAsString();
+    return objectMapper.readTree(body).get("id").asLong();
+  }
 }
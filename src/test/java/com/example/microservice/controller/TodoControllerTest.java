@@ -1,23 +1,50 @@
 package com.example.microservice.controller;
 
 import com.example.microservice.model.Todo;
+import com.example.microservice.model.TodoProjection;
+import com.example.microservice.model.TodoStats;
+import com.example.microservice.model.TodoSummary;
+import com.example.microservice.model.TodoView;
+import com.example.microservice.repository.TodoChangeTracker;
+import com.example.microservice.repository.TodoCounters;
+import com.example.microservice.repository.TodoIdempotencyStore;
+import com.example.microservice.repository.TodoReadCoalescer;
 import com.example.microservice.repository.TodoRepository;
+import com.example.microservice.repository.TodoSearchIndex;
+import com.example.microservice.repository.TodoWriteBehind;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.nio.file.Path;
+import java.security.Principal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +54,27 @@ class TodoControllerTest {
   @Mock
   private TodoRepository todoRepository;
 
+  @Mock
+  private TodoChangeLog changeLog;
+
+  @Spy
+  private TodoWriteBehind writeBehind = new TodoWriteBehind(false, 500, Duration.ofMillis(200), Path.of("unused"));
+
+  @Spy
+  private TodoChangeTracker changeTracker = new TodoChangeTracker();
+
+  @Spy
+  private TodoSearchIndex searchIndex = new TodoSearchIndex(TodoController.MAX_SEARCH_OFFSET + 2);
+
+  @Spy
+  private TodoIdempotencyStore idempotencyStore = new TodoIdempotencyStore(100, Duration.ofMinutes(1), false);
+
+  @Spy
+  private TodoReadCoalescer readCoalescer = new TodoReadCoalescer(false, Duration.ofSeconds(2));
+
+  @Spy
+  private TodoCounters counters = new TodoCounters();
+
   @InjectMocks
   private TodoController todoController;
 
@@ -46,67 +94,255 @@ class TodoControllerTest {
   void shouldCreateTodo() {
     when(todoRepository.save(any(Todo.class))).thenReturn(testTodo);
 
-    ResponseEntity<Todo> response = todoController.createTodo(testTodo);
+    ResponseEntity<Todo> response = todoController.createTodo(copy(testTodo), null, null);
 
     assertEquals(HttpStatus.CREATED, response.getStatusCode());
     assertNotNull(response.getBody());
     assertEquals("Test TODO", response.getBody().getTitle());
+    verify(todoRepository, times(1)).save(argThat(todo -> todo.getId() == null));
+  }
+
+  @Test
+  @DisplayName("Should replay a create retried with the same Idempotency-Key")
+  void shouldReplayIdempotentCreate() {
+    when(todoRepository.save(any(Todo.class))).thenReturn(testTodo);
+    Principal client = () -> "default";
+
+    ResponseEntity<Todo> first = todoController.createTodo(copy(testTodo), "key-1", client);
+    ResponseEntity<Todo> retry = todoController.createTodo(copy(testTodo), "key-1", client);
+
+    assertEquals(HttpStatus.CREATED, first.getStatusCode());
+    assertNull(first.getHeaders().getFirst("Idempotent-Replayed"));
+    assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+    assertEquals("true", retry.getHeaders().getFirst("Idempotent-Replayed"));
+    assertSame(first.getBody(), retry.getBody());
     verify(todoRepository, times(1)).save(any(Todo.class));
+    verify(changeLog, times(1)).created(testTodo);
+  }
+
+  @Test
+  @DisplayName("Should reject an Idempotency-Key reused for a different TODO or out of bounds")
+  void shouldRejectMisusedIdempotencyKey() {
+    when(todoRepository.save(any(Todo.class))).thenReturn(testTodo);
+    Principal client = () -> "default";
+    todoController.createTodo(copy(testTodo), "key-2", client);
+
+    Todo other = copy(testTodo);
+    other.setTitle("Another TODO");
+    assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, todoController.createTodo(other, "key-2", client).getStatusCode());
+    assertEquals(HttpStatus.BAD_REQUEST, todoController.createTodo(other, " ", client).getStatusCode());
+    assertEquals(HttpStatus.BAD_REQUEST, todoController.createTodo(other, "k".repeat(256), client).getStatusCode());
+    // Another client's key space is separate
+    assertEquals(HttpStatus.CREATED, todoController.createTodo(other, "key-2", () -> "reporting").getStatusCode());
+    verify(todoRepository, times(2)).save(any(Todo.class));
   }
 
   @Test
   @DisplayName("Should get all TODOs")
   void shouldGetAllTodos() {
-    Todo todo2 = new Todo();
-    todo2.setId(2L);
-    todo2.setTitle("Second TODO");
-
-    when(todoRepository.findAll()).thenReturn(Arrays.asList(testTodo, todo2));
+    when(todoRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class), eq(TodoView.class)))
+        .thenReturn(Arrays.asList(view(1L, "Test TODO"), view(2L, "Second TODO")));
 
-    ResponseEntity<List<Todo>> response = todoController.getAllTodos(null);
+    ResponseEntity<List<TodoProjection>> response = todoController.getAllTodos(null, null, 100, null, get());
 
     assertEquals(HttpStatus.OK, response.getStatusCode());
     assertNotNull(response.getBody());
     assertEquals(2, response.getBody().size());
-    verify(todoRepository, times(1)).findAll();
+    assertNull(response.getHeaders().getFirst(HttpHeaders.LINK));
+    verify(todoRepository, times(1)).findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 101), TodoView.class);
+    verify(todoRepository, never()).findAll();
   }
 
   @Test
   @DisplayName("Should get TODOs filtered by completed status")
   void shouldGetTodosFilteredByStatus() {
-    when(todoRepository.findByCompleted(true)).thenReturn(Arrays.asList(testTodo));
+    when(todoRepository.findByCompletedAndIdGreaterThanOrderByCompletedAscIdAsc(
+        eq(true), eq(0L), any(Pageable.class), eq(TodoView.class)))
+        .thenReturn(Arrays.asList(view(1L, "Test TODO")));
 
-    ResponseEntity<List<Todo>> response = todoController.getAllTodos(true);
+    ResponseEntity<List<TodoProjection>> response = todoController.getAllTodos(true, null, 100, null, get());
 
     assertEquals(HttpStatus.OK, response.getStatusCode());
     assertNotNull(response.getBody());
     assertEquals(1, response.getBody().size());
-    verify(todoRepository, times(1)).findByCompleted(true);
+    verify(todoRepository, times(1)).findByCompletedAndIdGreaterThanOrderByCompletedAscIdAsc(
+        eq(true), eq(0L), any(Pageable.class), eq(TodoView.class));
     verify(todoRepository, never()).findAll();
   }
 
+  @Test
+  @DisplayName("Should return next page link when more TODOs exist")
+  void shouldReturnNextLinkWhenMoreTodosExist() {
+    when(todoRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class), eq(TodoView.class)))
+        .thenReturn(Arrays.asList(view(1L, "Test TODO"), view(2L, "Second TODO")));
+
+    ResponseEntity<List<TodoProjection>> response = todoController.getAllTodos(null, null, 1, null, get());
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(1, response.getBody().size());
+    assertEquals("</api/todos?after=" + TodoCursor.encode(1L) + "&limit=1>; rel=\"next\"",
+        response.getHeaders().getFirst(HttpHeaders.LINK));
+  }
+
+  @Test
+  @DisplayName("Should seek past the cursor id")
+  void shouldSeekPastCursorId() {
+    when(todoRepository.findByIdGreaterThanOrderByIdAsc(eq(42L), any(Pageable.class), eq(TodoView.class)))
+        .thenReturn(List.of());
+
+    ResponseEntity<List<TodoProjection>> response = todoController.getAllTodos(null, TodoCursor.encode(42L), 100, null, get());
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertTrue(response.getBody().isEmpty());
+    verify(todoRepository, times(1)).findByIdGreaterThanOrderByIdAsc(eq(42L), any(Pageable.class), eq(TodoView.class));
+  }
+
+  @Test
+  @DisplayName("Should return 400 for malformed cursor")
+  void shouldReturn400ForMalformedCursor() {
+    ResponseEntity<List<TodoProjection>> response = todoController.getAllTodos(null, "not-a-cursor", 100, null, get());
+
+    assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    verifyNoInteractions(todoRepository);
+  }
+
+  @Test
+  @DisplayName("Should read summaries when description is not requested")
+  void shouldReadSummariesWhenDescriptionNotRequested() {
+    TodoSummary first = new TodoSummary(1L, "Test TODO", false, null, null, 0L);
+    TodoSummary second = new TodoSummary(2L, "Second TODO", false, null, null, 0L);
+    when(todoRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class), eq(TodoSummary.class)))
+        .thenReturn(Arrays.asList(first, second));
+
+    ResponseEntity<List<TodoProjection>> response =
+        todoController.getAllTodos(null, null, 1, new LinkedHashSet<>(List.of("id", "title")), get());
+
+    assertEquals(List.of(first), response.getBody());
+    assertEquals("</api/todos?after=" + TodoCursor.encode(1L) + "&limit=1&fields=id,title>; rel=\"next\"",
+        response.getHeaders().getFirst(HttpHeaders.LINK));
+  }
+
+  @Test
+  @DisplayName("Should return 400 for unknown fields")
+  void shouldReturn400ForUnknownFields() {
+    ResponseEntity<List<TodoProjection>> response = todoController.getAllTodos(null, null, 100, Set.of("id", "owner"), get());
+
+    assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    verifyNoInteractions(todoRepository);
+  }
+
+  @Test
+  @DisplayName("Should answer 304 for an unchanged TODO list without querying")
+  void shouldReturnNotModifiedForUnchangedList() {
+    when(todoRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class), eq(TodoView.class)))
+        .thenReturn(List.of(view(1L, "Test TODO")));
+    ResponseEntity<List<TodoProjection>> first = todoController.getAllTodos(null, null, 100, null, get());
+    String eTag = first.getHeaders().getETag();
+
+    MockHttpServletRequest revalidation = new MockHttpServletRequest("GET", "/api/todos");
+    revalidation.addHeader(HttpHeaders.IF_NONE_MATCH, eTag);
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    ResponseEntity<List<TodoProjection>> second =
+        todoController.getAllTodos(null, null, 100, null, new ServletWebRequest(revalidation, response));
+
+    assertNotNull(eTag);
+    assertNull(second);
+    assertEquals(HttpStatus.NOT_MODIFIED.value(), response.getStatus());
+    verify(todoRepository, times(1)).findByIdGreaterThanOrderByIdAsc(eq(0L), any(Pageable.class), eq(TodoView.class));
+  }
+
+  @Test
+  @DisplayName("Should change the TODO list ETag after a write")
+  void shouldChangeListETagAfterWrite() {
+    ResponseEntity<List<TodoProjection>> before = todoController.getAllTodos(null, null, 100, null, get());
+    changeTracker.changed();
+    ResponseEntity<List<TodoProjection>> after = todoController.getAllTodos(null, null, 100, null, get());
+
+    assertNotEquals(before.getHeaders().getETag(), after.getHeaders().getETag());
+  }
+
+  @Test
+  @DisplayName("Should return search hits in rank order, skipping rows that no longer exist")
+  void shouldSearchTodosInRankOrder() {
+    searchIndex.add(1L, "Quarterly report notes", null);
+    searchIndex.add(2L, "Report", null);
+    searchIndex.add(3L, "Report draft", null);
+    when(todoRepository.findByIdIn(any(), eq(TodoView.class)))
+        .thenReturn(List.of(view(1L, "Quarterly report notes"), view(2L, "Report")));
+
+    ResponseEntity<List<TodoView>> response = todoController.searchTodos("report", 0, 2, get());
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    assertEquals(List.of(2L), response.getBody().stream().map(TodoView::id).toList());
+    assertEquals("</api/todos/search?q=report&offset=2&limit=2>; rel=\"next\"",
+        response.getHeaders().getFirst(HttpHeaders.LINK));
+    verify(todoRepository).findByIdIn(List.of(2L, 3L), TodoView.class);
+  }
+
+  @Test
+  @DisplayName("Should return 400 for a blank search")
+  void shouldReturn400ForBlankSearch() {
+    ResponseEntity<List<TodoView>> response = todoController.searchTodos(" ", 0, 10, get());
+
+    assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    verifyNoInteractions(todoRepository);
+  }
+
+  @Test
+  @DisplayName("Should return 503 when the search index is disabled")
+  void shouldReturn503WhenSearchIndexIsDisabled() {
+    when(searchIndex.isAvailable()).thenReturn(false);
+
+    ResponseEntity<List<TodoView>> response = todoController.searchTodos("report", 0, 10, get());
+
+    assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+    verifyNoInteractions(todoRepository);
+  }
+
+  @Test
+  @DisplayName("Should return 400 for a search offset past the cap and not link past it")
+  void shouldCapSearchOffset() {
+    for (long id = 1; id <= TodoController.MAX_SEARCH_OFFSET + 2; id++) {
+      searchIndex.add(id, "Report " + id, null);
+    }
+    when(todoRepository.findByIdIn(any(), eq(TodoView.class))).thenReturn(List.of());
+
+    ResponseEntity<List<TodoView>> tooDeep = todoController.searchTodos("report",
+        TodoController.MAX_SEARCH_OFFSET + 1, 1, get());
+    ResponseEntity<List<TodoView>> beforeCap = todoController.searchTodos("report",
+        TodoController.MAX_SEARCH_OFFSET - 1, 1, get());
+    ResponseEntity<List<TodoView>> atCap = todoController.searchTodos("report", TodoController.MAX_SEARCH_OFFSET, 1,
+        get());
+
+    assertEquals(HttpStatus.BAD_REQUEST, tooDeep.getStatusCode());
+    assertEquals("</api/todos/search?q=report&offset=10000&limit=1>; rel=\"next\"",
+        beforeCap.getHeaders().getFirst(HttpHeaders.LINK));
+    assertEquals(HttpStatus.OK, atCap.getStatusCode());
+    assertNull(atCap.getHeaders().getFirst(HttpHeaders.LINK));
+  }
+
   @Test
   @DisplayName("Should get TODO by ID")
   void shouldGetTodoById() {
-    when(todoRepository.findById(1L)).thenReturn(Optional.of(testTodo));
+    when(todoRepository.findCachedById(1L)).thenReturn(Optional.of(testTodo));
 
     ResponseEntity<Todo> response = todoController.getTodoById(1L);
 
     assertEquals(HttpStatus.OK, response.getStatusCode());
     assertNotNull(response.getBody());
     assertEquals("Test TODO", response.getBody().getTitle());
-    verify(todoRepository, times(1)).findById(1L);
+    verify(todoRepository, times(1)).findCachedById(1L);
   }
 
   @Test
   @DisplayName("Should return 404 when TODO not found by ID")
   void shouldReturn404WhenTodoNotFound() {
-    when(todoRepository.findById(999L)).thenReturn(Optional.empty());
+    when(todoRepository.findCachedById(999L)).thenReturn(Optional.empty());
 
     ResponseEntity<Todo> response = todoController.getTodoById(999L);
 
     assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
-    verify(todoRepository, times(1)).findById(999L);
+    verify(todoRepository, times(1)).findCachedById(999L);
   }
 
   @Test
@@ -117,66 +353,139 @@ class TodoControllerTest {
     updatedTodo.setDescription("Updated Description");
     updatedTodo.setCompleted(true);
 
+    when(todoRepository.updateContent(eq(1L), eq("Updated Title"), eq("Updated Description"), eq(true), isNull(), any()))
+        .thenReturn(Optional.of(false));
     when(todoRepository.findById(1L)).thenReturn(Optional.of(testTodo));
-    when(todoRepository.save(any(Todo.class))).thenReturn(testTodo);
 
-    ResponseEntity<Todo> response = todoController.updateTodo(1L, updatedTodo);
+    ResponseEntity<Todo> response = todoController.updateTodo(1L, updatedTodo, null);
 
     assertEquals(HttpStatus.OK, response.getStatusCode());
     assertNotNull(response.getBody());
-    verify(todoRepository, times(1)).findById(1L);
-    verify(todoRepository, times(1)).save(any(Todo.class));
+    verify(todoRepository, never()).save(any(Todo.class));
+    verify(counters).completionChanged(false, true);
   }
 
   @Test
   @DisplayName("Should return 404 when updating non-existent TODO")
   void shouldReturn404WhenUpdatingNonExistentTodo() {
-    when(todoRepository.findById(999L)).thenReturn(Optional.empty());
+    when(todoRepository.updateContent(eq(999L), any(), any(), any(), isNull(), any())).thenReturn(Optional.empty());
+    when(todoRepository.existsById(999L)).thenReturn(false);
 
-    ResponseEntity<Todo> response = todoController.updateTodo(999L, testTodo);
+    ResponseEntity<Todo> response = todoController.updateTodo(999L, testTodo, null);
 
     assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
-    verify(todoRepository, times(1)).findById(999L);
+    verify(todoRepository, never()).findById(anyLong());
     verify(todoRepository, never()).save(any(Todo.class));
   }
 
+  @Test
+  @DisplayName("Should return 412 when updating a stale version")
+  void shouldReturn412WhenUpdatingStaleVersion() {
+    when(todoRepository.updateContent(eq(1L), any(), any(), any(), eq(3L), any())).thenReturn(Optional.empty());
+    when(todoRepository.existsById(1L)).thenReturn(true);
+
+    ResponseEntity<Todo> response = todoController.updateTodo(1L, testTodo, TodoETag.of(1L, 3L));
+
+    assertEquals(HttpStatus.PRECONDITION_FAILED, response.getStatusCode());
+    verify(todoRepository, never()).findById(anyLong());
+  }
+
   @Test
   @DisplayName("Should mark TODO as completed")
   void shouldMarkTodoAsCompleted() {
+    when(todoRepository.markCompleted(eq(1L), isNull(), any())).thenReturn(Optional.of(false));
+    testTodo.setCompleted(true);
     when(todoRepository.findById(1L)).thenReturn(Optional.of(testTodo));
-    when(todoRepository.save(any(Todo.class))).thenReturn(testTodo);
 
-    ResponseEntity<Todo> response = todoController.completeTodo(1L);
+    ResponseEntity<Todo> response = todoController.completeTodo(1L, null, null);
 
     assertEquals(HttpStatus.OK, response.getStatusCode());
     assertNotNull(response.getBody());
     assertTrue(response.getBody().getCompleted());
-    verify(todoRepository, times(1)).findById(1L);
-    verify(todoRepository, times(1)).save(any(Todo.class));
+    verify(todoRepository, never()).save(any(Todo.class));
+    verify(counters).completionChanged(false, true);
+  }
+
+  @Test
+  @DisplayName("Should complete TODO in one statement when the client prefers a minimal response")
+  void shouldCompleteTodoWithMinimalResponse() {
+    when(todoRepository.markCompleted(eq(1L), eq(3L), any())).thenReturn(Optional.of(true));
+
+    ResponseEntity<Todo> response = todoController.completeTodo(1L, TodoETag.of(1L, 3L), "return=minimal");
+
+    assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+    assertEquals(TodoETag.of(1L, 4L), response.getHeaders().getETag());
+    verify(todoRepository, only()).markCompleted(eq(1L), eq(3L), any());
   }
 
   @Test
   @DisplayName("Should delete TODO successfully")
   void shouldDeleteTodo() {
-    when(todoRepository.existsById(1L)).thenReturn(true);
-    doNothing().when(todoRepository).deleteById(1L);
+    TodoSummary removed = new TodoSummary(1L, "Test TODO", false, testTodo.getCreatedAt(), null, 0L);
+    when(todoRepository.deleteReturningById(1L)).thenReturn(Optional.of(removed));
 
     ResponseEntity<Void> response = todoController.deleteTodo(1L);
 
     assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
-    verify(todoRepository, times(1)).existsById(1L);
-    verify(todoRepository, times(1)).deleteById(1L);
+    verify(todoRepository, only()).deleteReturningById(1L);
+    verify(counters).deleted(removed);
   }
 
   @Test
   @DisplayName("Should return 404 when deleting non-existent TODO")
   void shouldReturn404WhenDeletingNonExistentTodo() {
-    when(todoRepository.existsById(999L)).thenReturn(false);
+    when(todoRepository.deleteReturningById(999L)).thenReturn(Optional.empty());
 
     ResponseEntity<Void> response = todoController.deleteTodo(999L);
 
     assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
-    verify(todoRepository, times(1)).existsById(999L);
-    verify(todoRepository, never()).deleteById(anyLong());
+    verify(counters, never()).deleted(any());
+  }
+
+  @Test
+  @DisplayName("Should reject oversized batch requests")
+  void shouldRejectOversizedBatch() {
+    List<Long> ids = Collections.nCopies(TodoController.MAX_BATCH_SIZE + 1, 1L);
+
+    ResponseEntity<List<BatchItemResult>> response = todoController.deleteTodos(ids);
+
+    assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, response.getStatusCode());
+    verifyNoInteractions(todoRepository);
+  }
+
+  @Test
+  @DisplayName("Should answer stats from the counters without querying the table")
+  void shouldAnswerStatsFromCounters() {
+    Todo created = copy(testTodo);
+    created.setCreatedAt(LocalDateTime.now());
+    counters.created(created);
+    counters.created(created);
+    counters.completionChanged(false, true);
+
+    ResponseEntity<TodoStats> response = todoController.getStats(7);
+
+    assertEquals(HttpStatus.OK, response.getStatusCode());
+    TodoStats stats = response.getBody();
+    assertEquals(new TodoStats(2, 1, 1, stats.createdPerDay()), stats);
+    assertEquals(7, stats.createdPerDay().size());
+    assertEquals(2L, stats.createdPerDay().get(LocalDate.now()));
+    assertEquals(0L, stats.createdPerDay().get(LocalDate.now().minusDays(6)));
+    verifyNoInteractions(todoRepository);
+  }
+
+  private static ServletWebRequest get() {
+    return new ServletWebRequest(new MockHttpServletRequest("GET", "/api/todos"), new MockHttpServletResponse());
+  }
+
+  private static Todo copy(Todo todo) {
+    Todo request = new Todo();
+    request.setTitle(todo.getTitle());
+    request.setDescription(todo.getDescription());
+    request.setCompleted(todo.getCompleted());
+    return request;
+  }
+
+  private static TodoView view(Long id, String title) {
+    return new TodoView(id, title, null, false, null, null, 0L);
   }
 }
@@ -0,0 +1,33 @@
+package com.example.microservice.controller;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TodoETag Unit Tests")
+class TodoETagTest {
+
+  @Test
+  @DisplayName("Should read the version from a matching If-Match")
+  void shouldReadVersionFromIfMatch() {
+    assertEquals(3L, TodoETag.expectedVersion(42L, TodoETag.of(42L, 3L)));
+    assertEquals(3L, TodoETag.expectedVersion(42L, "\"7-1\", \"42-3\""));
+  }
+
+  @Test
+  @DisplayName("Should not require a version without If-Match or with a wildcard")
+  void shouldNotRequireVersionWithoutIfMatch() {
+    assertNull(TodoETag.expectedVersion(42L, null));
+    assertNull(TodoETag.expectedVersion(42L, "*"));
+  }
+
+  @Test
+  @DisplayName("Should never match weak, foreign or malformed tags")
+  void shouldNeverMatchOtherTags() {
+    assertEquals(TodoETag.NO_MATCH, TodoETag.expectedVersion(42L, "W/\"42-3\""));
+    assertEquals(TodoETag.NO_MATCH, TodoETag.expectedVersion(42L, "\"7-3\""));
+    assertEquals(TodoETag.NO_MATCH, TodoETag.expectedVersion(42L, "\"42-x\""));
+    assertEquals(TodoETag.NO_MATCH, TodoETag.expectedVersion(42L, "\"42-\""));
+  }
+}
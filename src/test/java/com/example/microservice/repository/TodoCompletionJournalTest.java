@@ -0,0 +1,84 @@
+package com.example.microservice.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TodoCompletionJournal Unit Tests")
+class TodoCompletionJournalTest {
+
+  private static final LocalDateTime AT = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_456_000);
+
+  @TempDir
+  Path dir;
+
+  @Test
+  @DisplayName("Should recover synced entries after a restart")
+  void shouldRecoverEntries() {
+    Path path = dir.resolve("completions.journal");
+    try (TodoCompletionJournal journal = new TodoCompletionJournal(path)) {
+      journal.append(1L, AT);
+      journal.sync(journal.append(2L, AT.plusSeconds(1)));
+    }
+
+    try (TodoCompletionJournal reopened = new TodoCompletionJournal(path)) {
+      assertEquals(List.of(new TodoCompletionJournal.Entry(1L, AT), new TodoCompletionJournal.Entry(2L, AT.plusSeconds(1))),
+          reopened.recover());
+    }
+  }
+
+  @Test
+  @DisplayName("Should replay the batch being flushed before later entries")
+  void shouldRecoverRotatedSegmentFirst() {
+    Path path = dir.resolve("completions.journal");
+    try (TodoCompletionJournal journal = new TodoCompletionJournal(path)) {
+      journal.append(1L, AT);
+      journal.rotate();
+      journal.sync(journal.append(2L, AT.plusSeconds(1)));
+
+      assertEquals(List.of(1L, 2L), journal.recover().stream().map(TodoCompletionJournal.Entry::id).toList());
+
+      journal.discardRotated();
+      assertEquals(List.of(2L), journal.recover().stream().map(TodoCompletionJournal.Entry::id).toList());
+    }
+  }
+
+  @Test
+  @DisplayName("Should skip a line torn by a crash")
+  void shouldSkipTornLine() throws Exception {
+    Path path = dir.resolve("completions.journal");
+    try (TodoCompletionJournal journal = new TodoCompletionJournal(path)) {
+      journal.sync(journal.append(1L, AT));
+    }
+    Files.writeString(path, "2 2024-05-01T12:3", StandardOpenOption.APPEND);
+
+    try (TodoCompletionJournal reopened = new TodoCompletionJournal(path)) {
+      assertEquals(List.of(new TodoCompletionJournal.Entry(1L, AT)), reopened.recover());
+    }
+  }
+
+  @Test
+  @DisplayName("Should empty both files on reset and keep appending afterwards")
+  void shouldReset() {
+    Path path = dir.resolve("completions.journal");
+    try (TodoCompletionJournal journal = new TodoCompletionJournal(path)) {
+      journal.append(1L, AT);
+      journal.rotate();
+      journal.append(2L, AT);
+      journal.reset();
+
+      assertEquals(List.of(), journal.recover());
+
+      journal.sync(journal.append(3L, AT));
+      assertEquals(List.of(3L), journal.recover().stream().map(TodoCompletionJournal.Entry::id).toList());
+    }
+  }
+}
@@ -0,0 +1,132 @@
+package com.example.microservice.repository;
+
+import com.example.microservice.model.IdempotencyRecord;
+import com.example.microservice.model.Todo;
+import com.example.microservice.model.TodoView;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(locations = "classpath:application-test.properties", properties = {
+    "spring.datasource.url=jdbc:h2:mem:idempotency",
+    "todos.idempotency.persistent=true"
+})
+@DisplayName("TodoIdempotencyStore Integration Tests")
+class TodoIdempotencyIntegrationTest {
+
+  private static final String BODY = "{\"title\":\"Pay invoice\",\"description\":\"Once\"}";
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private TodoRepository todoRepository;
+
+  @Autowired
+  private IdempotencyRecordRepository recordRepository;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Value("${api.key}")
+  private String API_KEY;
+
+  @BeforeEach
+  void setUp() {
+    recordRepository.deleteAll();
+    todoRepository.deleteAll();
+  }
+
+  @Test
+  @DisplayName("Should create once, record the key with the todo and replay retries")
+  void shouldCreateOnceAndReplay() throws Exception {
+    String created = mockMvc.perform(post("/api/todos")
+        .header("X-API-Key", API_KEY)
+        .header("Idempotency-Key", "invoice-42")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(BODY))
+        .andExpect(status().isCreated())
+        .andExpect(header().doesNotExist("Idempotent-Replayed"))
+        .andReturn().getResponse().getContentAsString();
+
+    String replayed = mockMvc.perform(post("/api/todos")
+        .header("X-API-Key", API_KEY)
+        .header("Idempotency-Key", "invoice-42")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(BODY))
+        .andExpect(status().isCreated())
+        .andExpect(header().string("Idempotent-Replayed", "true"))
+        .andReturn().getResponse().getContentAsString();
+
+    assertEquals(objectMapper.readTree(created), objectMapper.readTree(replayed));
+    assertEquals(1, todoRepository.count());
+    IdempotencyRecord record = recordRepository.findById("default invoice-42").orElseThrow();
+    assertEquals(objectMapper.readTree(created).get("id").asLong(),
+        objectMapper.readValue(record.getResponse(), TodoView.class).id());
+
+    mockMvc.perform(post("/api/todos")
+        .header("X-API-Key", API_KEY)
+        .header("Idempotency-Key", "invoice-42")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"title\":\"Something else\"}"))
+        .andExpect(status().isUnprocessableEntity());
+  }
+
+  @Test
+  @DisplayName("Should replay a key recorded before a restart without creating anything")
+  void shouldReplayFromTable() throws Exception {
+    Todo todo = new Todo();
+    todo.setTitle("Pay invoice");
+    todo.setDescription("Once");
+    Todo saved = todoRepository.save(todo);
+    Todo request = new Todo();
+    request.setTitle("Pay invoice");
+    request.setDescription("Once");
+    recordRepository.save(new IdempotencyRecord("default invoice-7", TodoIdempotencyStore.fingerprint(request),
+        objectMapper.writeValueAsString(TodoView.of(saved)), LocalDateTime.now()));
+
+    mockMvc.perform(post("/api/todos")
+        .header("X-API-Key", API_KEY)
+        .header("Idempotency-Key", "invoice-7")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(BODY))
+        .andExpect(status().isCreated())
+        .andExpect(header().string("Idempotent-Replayed", "true"))
+        .andExpect(jsonPath("$.id").value(saved.getId()))
+        .andExpect(jsonPath("$.version").value(0));
+    assertEquals(1, todoRepository.count());
+  }
+
+  @Test
+  @DisplayName("Should treat a key older than the TTL as new")
+  void shouldReuseExpiredKey() throws Exception {
+    recordRepository.save(new IdempotencyRecord("default invoice-old", "stale", "{}",
+        LocalDateTime.now().minusDays(2)));
+
+    mockMvc.perform(post("/api/todos")
+        .header("X-API-Key", API_KEY)
+        .header("Idempotency-Key", "invoice-old")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(BODY))
+        .andExpect(status().isCreated())
+        .andExpect(header().doesNotExist("Idempotent-Replayed"));
+    assertEquals(1, todoRepository.count());
+    assertNotEquals("stale", recordRepository.findById("default invoice-old").orElseThrow().getFingerprint());
+  }
+}
@@ -0,0 +1,109 @@
+package com.example.microservice.repository;
+
+import com.example.microservice.model.Todo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.microservice.repository.TodoIdempotencyStore.Status.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TodoIdempotencyStore Unit Tests")
+class TodoIdempotencyStoreTest {
+
+  private final TodoIdempotencyStore store = new TodoIdempotencyStore(100, Duration.ofMinutes(1), false);
+
+  @Test
+  @DisplayName("Should run concurrent duplicates once and hand every caller the same todo")
+  void shouldCollapseConcurrentDuplicates() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger executions = new AtomicInteger();
+    Todo created = todo("Buy milk");
+
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<TodoIdempotencyStore.Outcome>> outcomes = new ArrayList<>();
+      for (int i = 0; i < 4; i++) {
+        outcomes.add(pool.submit(() -> store.createOnce("default", "key", todo("Buy milk"), () -> {
+          executions.incrementAndGet();
+          started.countDown();
+          await(release);
+          return created;
+        })));
+      }
+      assertTrue(started.await(5, TimeUnit.SECONDS));
+      // Give the duplicates time to find the in-flight entry before it completes
+      Thread.sleep(100);
+      release.countDown();
+
+      int createdCount = 0;
+      for (Future<TodoIdempotencyStore.Outcome> outcome : outcomes) {
+        TodoIdempotencyStore.Outcome result = outcome.get(5, TimeUnit.SECONDS);
+        assertSame(created, result.todo());
+        createdCount += result.status() == CREATED ? 1 : 0;
+      }
+      assertEquals(1, executions.get());
+      assertEquals(1, createdCount);
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  @Test
+  @DisplayName("Should let a retry run again when the first execution failed")
+  void shouldForgetFailedExecutions() {
+    assertThrows(IllegalStateException.class, () -> store.createOnce("default", "key", todo("Buy milk"), () -> {
+      throw new IllegalStateException("database down");
+    }));
+
+    Todo created = todo("Buy milk");
+    TodoIdempotencyStore.Outcome retry = store.createOnce("default", "key", todo("Buy milk"), () -> created);
+    assertEquals(CREATED, retry.status());
+    assertSame(created, retry.todo());
+  }
+
+  @Test
+  @DisplayName("Should report a different body under the same key as a mismatch")
+  void shouldDetectMismatch() {
+    store.createOnce("default", "key", todo("Buy milk"), () -> todo("Buy milk"));
+
+    TodoIdempotencyStore.Outcome other = store.createOnce("default", "key", todo("Buy bread"), () -> fail("ran twice"));
+    assertEquals(MISMATCH, other.status());
+    assertNull(other.todo());
+  }
+
+  @Test
+  @DisplayName("Should fingerprint what the client asked for, telling null from empty")
+  void shouldFingerprintRequest() {
+    Todo withDescription = todo("Buy milk");
+    withDescription.setDescription("");
+
+    assertEquals(TodoIdempotencyStore.fingerprint(todo("Buy milk")), TodoIdempotencyStore.fingerprint(todo("Buy milk")));
+    assertNotEquals(TodoIdempotencyStore.fingerprint(todo("Buy milk")), TodoIdempotencyStore.fingerprint(withDescription));
+    assertEquals(64, TodoIdempotencyStore.fingerprint(todo("Buy milk")).length());
+  }
+
+  private static Todo todo(String title) {
+    Todo todo = new Todo();
+    todo.setTitle(title);
+    return todo;
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
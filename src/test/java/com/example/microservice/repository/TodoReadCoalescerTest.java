@@ -0,0 +1,181 @@
+package com.example.microservice.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TodoReadCoalescer Unit Tests")
+class TodoReadCoalescerTest {
+
+  private final TodoChangeTracker changeTracker = new TodoChangeTracker();
+  private TodoReadCoalescer coalescer;
+  private final List<Thread> threads = new CopyOnWriteArrayList<>();
+  private ExecutorService pool;
+
+  @BeforeEach
+  void setUp() {
+    coalescer = coalescer(Duration.ofSeconds(5));
+    pool = Executors.newFixedThreadPool(4, runnable -> {
+      Thread thread = new Thread(runnable);
+      threads.add(thread);
+      return thread;
+    });
+  }
+
+  @AfterEach
+  void tearDown() {
+    pool.shutdownNow();
+  }
+
+  @Test
+  @DisplayName("Should run concurrent identical reads once and share the result")
+  void shouldCollapseIdenticalReads() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger loads = new AtomicInteger();
+    Object result = new Object();
+
+    List<Future<Object>> reads = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      reads.add(pool.submit(() -> coalescer.read("findCachedById", blocking(loads, release, result), 1L)));
+    }
+    awaitWaiters(3);
+    release.countDown();
+
+    for (Future<Object> read : reads) {
+      assertSame(result, read.get(5, TimeUnit.SECONDS));
+    }
+    assertEquals(1, loads.get());
+    assertEquals(1, coalescer.getExecuted());
+    assertEquals(3, coalescer.getCollapsed());
+  }
+
+  @Test
+  @DisplayName("Should hand the failure of a shared read to every caller and forget it")
+  void shouldPropagateErrors() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger loads = new AtomicInteger();
+    IllegalStateException failure = new IllegalStateException("database down");
+
+    List<Future<Object>> reads = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      reads.add(pool.submit(() -> coalescer.read("findCachedById", () -> {
+        blocking(loads, release, null).get();
+        throw failure;
+      }, 1L)));
+    }
+    awaitWaiters(1);
+    release.countDown();
+
+    for (Future<Object> read : reads) {
+      ExecutionException thrown = assertThrows(ExecutionException.class, () -> read.get(5, TimeUnit.SECONDS));
+      assertSame(failure, thrown.getCause());
+    }
+    assertEquals(1, loads.get());
+    assertEquals("ok", coalescer.read("findCachedById", () -> "ok", 1L));
+  }
+
+  @Test
+  @DisplayName("Should keep reads with different arguments or across a write apart")
+  void shouldKeyByArgumentsAndVersion() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger loads = new AtomicInteger();
+
+    Future<Object> first = pool.submit(() -> coalescer.read("findCachedById", blocking(loads, release, "a"), 1L));
+    awaitLoads(loads, 1);
+    Future<Object> other = pool.submit(() -> coalescer.read("findCachedById", blocking(loads, release, "b"), 2L));
+    awaitLoads(loads, 2);
+    changeTracker.changed();
+    Future<Object> afterWrite = pool.submit(() -> coalescer.read("findCachedById", blocking(loads, release, "c"), 1L));
+    awaitLoads(loads, 3);
+    release.countDown();
+
+    assertEquals("a", first.get(5, TimeUnit.SECONDS));
+    assertEquals("b", other.get(5, TimeUnit.SECONDS));
+    assertEquals("c", afterWrite.get(5, TimeUnit.SECONDS));
+    assertEquals(0, coalescer.getCollapsed());
+  }
+
+  @Test
+  @DisplayName("Should stop waiting for a slow read after the timeout and run its own")
+  void shouldRunOwnReadAfterTimeout() throws Exception {
+    coalescer = coalescer(Duration.ofMillis(50));
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger loads = new AtomicInteger();
+
+    Future<Object> slow = pool.submit(() -> coalescer.read("findPage", blocking(loads, release, "slow"), 0L));
+    awaitLoads(loads, 1);
+    assertEquals("own", coalescer.read("findPage", () -> "own", 0L));
+    release.countDown();
+
+    assertEquals("slow", slow.get(5, TimeUnit.SECONDS));
+    assertEquals(1, coalescer.getTimedOut());
+    assertEquals(0, coalescer.getCollapsed());
+  }
+
+  @Test
+  @DisplayName("Should call straight through when disabled")
+  void shouldPassThroughWhenDisabled() {
+    TodoReadCoalescer disabled = new TodoReadCoalescer(false, Duration.ofSeconds(5));
+
+    assertEquals("direct", disabled.read("findCachedById", () -> "direct", 1L));
+    assertEquals(0, disabled.getExecuted());
+  }
+
+  private TodoReadCoalescer coalescer(Duration timeout) {
+    TodoReadCoalescer coalescer = new TodoReadCoalescer(true, timeout);
+    ReflectionTestUtils.setField(coalescer, "changeTracker", changeTracker);
+    return coalescer;
+  }
+
+  private static <T> Supplier<T> blocking(AtomicInteger loads, CountDownLatch release, T result) {
+    return () -> {
+      loads.incrementAndGet();
+      try {
+        release.await(5, TimeUnit.SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return result;
+    };
+  }
+
+  private static void awaitLoads(AtomicInteger loads, int expected) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (loads.get() < expected && System.nanoTime() < deadline) {
+      Thread.sleep(5);
+    }
+    assertEquals(expected, loads.get());
+  }
+
+  // Waiters park in CompletableFuture.get with a timeout, as does the leader in its load
+  private void awaitWaiters(int expected) throws InterruptedException {
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (System.nanoTime() < deadline) {
+      long parked = threads.stream()
+          .filter(thread -> thread.getState() == Thread.State.TIMED_WAITING)
+          .count();
+      if (parked >= expected + 1) {
+        return;
+      }
+      Thread.sleep(5);
+    }
+    fail("Callers did not start waiting");
+  }
+}
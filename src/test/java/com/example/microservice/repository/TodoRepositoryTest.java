@@ -1,13 +1,18 @@
 package com.example.microservice.repository;
 
 import com.example.microservice.model.Todo;
+import com.example.microservice.model.TodoSummary;
+import com.example.microservice.model.TodoView;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -168,4 +173,137 @@ class TodoRepositoryTest {
 
     assertFalse(notFound.isPresent());
   }
+
+  @Test
+  @DisplayName("Should page TODOs by id using keyset queries")
+  void shouldPageTodosByKeyset() {
+    for (int i = 1; i <= 5; i++) {
+      Todo todo = new Todo();
+      todo.setTitle("TODO " + i);
+      todo.setCompleted(i % 2 == 0);
+      todoRepository.save(todo);
+    }
+    entityManager.flush();
+
+    List<Todo> firstPage = todoRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 2), Todo.class);
+    List<Todo> secondPage = todoRepository.findByIdGreaterThanOrderByIdAsc(
+        firstPage.get(1).getId(), PageRequest.of(0, 2), Todo.class);
+    List<Todo> completedPage = todoRepository.findByCompletedAndIdGreaterThanOrderByCompletedAscIdAsc(
+        true, 0L, PageRequest.of(0, 10), Todo.class);
+
+    assertEquals(List.of("TODO 1", "TODO 2"), firstPage.stream().map(Todo::getTitle).toList());
+    assertEquals(List.of("TODO 3", "TODO 4"), secondPage.stream().map(Todo::getTitle).toList());
+    assertEquals(List.of("TODO 2", "TODO 4"), completedPage.stream().map(Todo::getTitle).toList());
+  }
+
+  @Test
+  @DisplayName("Should read keyset pages as projections without managing entities")
+  void shouldReadKeysetPagesAsProjections() {
+    Todo todo = new Todo();
+    todo.setTitle("TODO 1");
+    todo.setDescription("Long description");
+    todo.setCompleted(true);
+    todoRepository.save(todo);
+    entityManager.flush();
+    entityManager.clear();
+
+    List<TodoView> views = todoRepository.findByIdGreaterThanOrderByIdAsc(0L, PageRequest.of(0, 10), TodoView.class);
+    List<TodoSummary> summaries = todoRepository.findByCompletedAndIdGreaterThanOrderByCompletedAscIdAsc(
+        true, 0L, PageRequest.of(0, 10), TodoSummary.class);
+
+    assertEquals(1, views.size());
+    assertEquals("Long description", views.get(0).description());
+    assertNotNull(views.get(0).createdAt());
+    assertEquals(List.of(new TodoSummary(todo.getId(), "TODO 1", true, views.get(0).createdAt(),
+        views.get(0).updatedAt(), 0L)), summaries);
+    assertEquals(0, entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+  }
+
+  @Test
+  @DisplayName("Should complete TODO only at the expected version")
+  void shouldCompleteTodoOnlyAtExpectedVersion() {
+    Todo todo = new Todo();
+    todo.setTitle("TODO 1");
+    todoRepository.save(todo);
+    entityManager.flush();
+
+    Optional<Boolean> stale = todoRepository.markCompleted(todo.getId(), 1L, LocalDateTime.now());
+    Optional<Boolean> current = todoRepository.markCompleted(todo.getId(), 0L, LocalDateTime.now());
+    Optional<Boolean> unconditional = todoRepository.updateContent(todo.getId(), "Renamed", null, true, null,
+        LocalDateTime.now());
+    entityManager.clear();
+
+    Todo reloaded = todoRepository.findById(todo.getId()).orElseThrow();
+    assertEquals(Optional.empty(), stale);
+    assertEquals(Optional.of(false), current);
+    assertEquals(Optional.of(true), unconditional);
+    assertEquals("Renamed", reloaded.getTitle());
+    assertTrue(reloaded.getCompleted());
+    assertEquals(2L, reloaded.getVersion());
+  }
+
+  @Test
+  @DisplayName("Should return what a delete removed")
+  void shouldReturnDeletedRows() {
+    Todo todo = new Todo();
+    todo.setTitle("TODO 1");
+    todo.setCompleted(true);
+    todoRepository.save(todo);
+    entityManager.flush();
+    entityManager.clear();
+    LocalDateTime createdAt = todoRepository.findById(todo.getId()).orElseThrow().getCreatedAt();
+    entityManager.clear();
+
+    List<TodoSummary> removed = todoRepository.deleteReturningByIdIn(List.of(todo.getId(), todo.getId() + 1));
+
+    assertEquals(1, removed.size());
+    assertEquals(todo.getId(), removed.get(0).id());
+    assertTrue(removed.get(0).completed());
+    assertEquals(createdAt, removed.get(0).createdAt());
+    assertFalse(todoRepository.existsById(todo.getId()));
+    assertEquals(List.of(), todoRepository.deleteReturningByIdIn(List.of(todo.getId())));
+    assertEquals(Optional.empty(), todoRepository.deleteReturningById(todo.getId()));
+  }
+
+  @Test
+  @DisplayName("Should read export pages in id order after the given id")
+  void shouldReadExportPagesInIdOrder() {
+    Todo todo1 = new Todo();
+    todo1.setTitle("TODO 1");
+    todo1.setCompleted(true);
+    todoRepository.save(todo1);
+
+    Todo todo2 = new Todo();
+    todo2.setTitle("TODO 2");
+    todoRepository.save(todo2);
+
+    entityManager.flush();
+
+    assertEquals(List.of("TODO 1", "TODO 2"),
+        todoRepository.findExportPage(null, 0L).stream().map(TodoView::title).toList());
+    assertEquals(List.of("TODO 2"),
+        todoRepository.findExportPage(null, todo1.getId()).stream().map(TodoView::title).toList());
+    assertEquals(List.of("TODO 1"),
+        todoRepository.findExportPage(true, 0L).stream().map(TodoView::title).toList());
+  }
+
+  @Test
+  @DisplayName("Should serve keyset pages from an index in key order")
+  void shouldServeKeysetPagesFromIndex() {
+    // Same shape as the SQL Hibernate generates for the keyset repository methods
+    String unfiltered = explain("SELECT * FROM todos t WHERE t.id > 0 ORDER BY t.id FETCH FIRST 21 ROWS ONLY");
+    String filtered = explain("SELECT * FROM todos t WHERE t.completed = TRUE AND t.id > 0 "
+        + "ORDER BY t.completed, t.id FETCH FIRST 21 ROWS ONLY");
+    String completedOnly = explain("SELECT * FROM todos t WHERE t.completed = TRUE");
+
+    assertTrue(unfiltered.contains("PRIMARY_KEY"), unfiltered);
+    assertTrue(unfiltered.contains("index sorted"), unfiltered);
+    assertTrue(filtered.contains("IDX_TODOS_COMPLETED_ID"), filtered);
+    assertTrue(filtered.contains("index sorted"), filtered);
+    assertTrue(completedOnly.contains("IDX_TODOS_COMPLETED_ID"), completedOnly);
+  }
+
+  private String explain(String sql) {
+    return (String) entityManager.getEntityManager().createNativeQuery("EXPLAIN " + sql).getSingleResult();
+  }
 }
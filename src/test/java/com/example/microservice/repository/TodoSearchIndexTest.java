@@ -0,0 +1,113 @@
+package com.example.microservice.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DisplayName("TodoSearchIndex Unit Tests")
+class TodoSearchIndexTest {
+
+  private final TodoSearchIndex index = new TodoSearchIndex(100);
+
+  @Test
+  @DisplayName("Should fold case and accents and split on punctuation")
+  void shouldNormalizeTerms() {
+    assertEquals(List.of("revisao", "do", "relatorio", "q3"), TodoSearchIndex.terms("Revisão do RELATÓRIO (Q3)!"));
+    assertEquals(List.of(), TodoSearchIndex.terms("  -- "));
+  }
+
+  @Test
+  @DisplayName("Should match whole words and prefixes in title and description")
+  void shouldMatchWordsAndPrefixes() {
+    index.add(1L, "Buy groceries", "milk and bread");
+    index.add(2L, "Call the bank", null);
+    index.add(3L, "Groceries list", "bread for the week");
+
+    assertEquals(List.of(1L, 3L), ids(index.search("bread", 0, 10)));
+    assertEquals(List.of(2L), ids(index.search("BAN", 0, 10)));
+    assertEquals(List.of(), ids(index.search("pasta", 0, 10)));
+  }
+
+  @Test
+  @DisplayName("Should require every query word to match")
+  void shouldRequireEveryWord() {
+    index.add(1L, "Buy groceries", "milk and bread");
+    index.add(2L, "Buy tickets", null);
+
+    assertEquals(List.of(1L), ids(index.search("buy milk", 0, 10)));
+    assertEquals(List.of(), ids(index.search("tickets milk", 0, 10)));
+  }
+
+  @Test
+  @DisplayName("Should rank title matches and exact words above description matches and prefixes")
+  void shouldRankByRelevance() {
+    index.add(1L, "Weekly notes", "report due friday");
+    index.add(2L, "Report", "quarterly numbers");
+    index.add(3L, "Reporting dashboard", null);
+
+    assertEquals(List.of(2L, 1L, 3L), ids(index.search("report", 0, 10)));
+  }
+
+  @Test
+  @DisplayName("Should only expand query words of two or more characters")
+  void shouldNotExpandSingleCharacters() {
+    index.add(1L, "A plan", null);
+    index.add(2L, "Apples", null);
+
+    assertEquals(List.of(1L), ids(index.search("a", 0, 10)));
+    assertEquals(List.of(2L), ids(index.search("ap", 0, 10)));
+  }
+
+  @Test
+  @DisplayName("Should page through ranked hits")
+  void shouldPage() {
+    for (long id = 1; id <= 5; id++) {
+      index.add(id, "Task " + id, null);
+    }
+
+    assertEquals(List.of(1L, 2L), ids(index.search("task", 0, 2)));
+    assertEquals(List.of(3L, 4L), ids(index.search("task", 2, 2)));
+    assertEquals(List.of(5L), ids(index.search("task", 4, 2)));
+    assertEquals(List.of(), ids(index.search("task", 6, 2)));
+    assertEquals(List.of(5L), ids(index.search("task", 4, Integer.MAX_VALUE)));
+  }
+
+  @Test
+  @DisplayName("Should replace a document on re-add and forget it on remove")
+  void shouldUpdateAndRemove() {
+    index.add(1L, "Draft email", null);
+    index.add(1L, "Send email", null);
+
+    assertEquals(List.of(), ids(index.search("draft", 0, 10)));
+    assertEquals(List.of(1L), ids(index.search("send", 0, 10)));
+
+    index.remove(1L);
+    index.remove(1L);
+
+    assertEquals(List.of(), ids(index.search("email", 0, 10)));
+    assertEquals(0, index.size());
+  }
+
+  @Test
+  @DisplayName("Should empty itself and stop indexing past max-documents")
+  void shouldDisablePastMaxDocuments() {
+    TodoSearchIndex small = new TodoSearchIndex(2);
+    small.add(1L, "Task one", null);
+    small.add(2L, "Task two", null);
+    assertTrue(small.isAvailable());
+
+    small.add(3L, "Task three", null);
+    small.saved(4L, "Task four", null);
+
+    assertFalse(small.isAvailable());
+    assertEquals(0, small.size());
+    assertEquals(List.of(), ids(small.search("task", 0, 10)));
+  }
+
+  private static List<Long> ids(List<TodoSearchIndex.Hit> hits) {
+    return hits.stream().map(TodoSearchIndex.Hit::id).toList();
+  }
+}
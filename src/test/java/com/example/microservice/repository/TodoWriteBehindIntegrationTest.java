@@ -0,0 +1,158 @@
+package com.example.microservice.repository;
+
+import com.example.microservice.model.Todo;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestPropertySource(locations = "classpath:application-test.properties", properties = {
+    "spring.datasource.url=jdbc:h2:mem:write-behind",
+    "todos.write-behind.enabled=true",
+    "todos.write-behind.journal=target/write-behind-it/completions.journal",
+    // Only the barriers flush during the tests
+    "todos.write-behind.flush-interval=1h",
+    "todos.write-behind.max-pending=1000"
+})
+@DisplayName("TodoWriteBehind Integration Tests")
+class TodoWriteBehindIntegrationTest {
+
+  private static final Path JOURNAL = Path.of("target/write-behind-it/completions.journal");
+
+  @Autowired
+  private MockMvc mockMvc;
+
+  @Autowired
+  private TodoRepository todoRepository;
+
+  @Autowired
+  private TodoWriteBehind writeBehind;
+
+  @Autowired
+  private TodoCounters counters;
+
+  @Autowired
+  private ObjectMapper objectMapper;
+
+  @Value("${api.key}")
+  private String API_KEY;
+
+  private Todo saved;
+
+  @BeforeEach
+  void setUp() {
+    writeBehind.flush();
+    todoRepository.deleteAll();
+    Todo todo = new Todo();
+    todo.setTitle("Write-behind TODO");
+    saved = todoRepository.save(todo);
+  }
+
+  @Test
+  @DisplayName("Should acknowledge a completion from the journal and show it before it is written")
+  void shouldReadPendingCompletion() throws Exception {
+    mockMvc.perform(patch("/api/todos/" + saved.getId() + "/complete")
+        .header("X-API-Key", API_KEY))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.completed").value(true))
+        .andExpect(header().string("ETag", "\"" + saved.getId() + "-1\""));
+
+    assertFalse(todoRepository.findById(saved.getId()).orElseThrow().getCompleted());
+    assertTrue(Files.size(JOURNAL) > 0);
+
+    mockMvc.perform(get("/api/todos/" + saved.getId())
+        .header("X-API-Key", API_KEY))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.completed").value(true))
+        .andExpect(jsonPath("$.version").value(1));
+  }
+
+  @Test
+  @DisplayName("Should count a journaled completion once in the stats")
+  void shouldCountPendingCompletionInStats() throws Exception {
+    counters.reconcile();
+    for (int i = 0; i < 2; i++) {
+      mockMvc.perform(patch("/api/todos/" + saved.getId() + "/complete")
+          .header("X-API-Key", API_KEY)
+          .header("Prefer", "return=minimal"))
+          .andExpect(status().isNoContent());
+    }
+
+    mockMvc.perform(get("/api/todos/stats")
+        .header("X-API-Key", API_KEY))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.total").value(1))
+        .andExpect(jsonPath("$.completed").value(1))
+        .andExpect(jsonPath("$.open").value(0));
+  }
+
+  @Test
+  @DisplayName("Should coalesce repeated completions into one write when the collection is read")
+  void shouldCoalesceAndFlushOnCollectionRead() throws Exception {
+    for (int i = 0; i < 3; i++) {
+      mockMvc.perform(patch("/api/todos/" + saved.getId() + "/complete")
+          .header("X-API-Key", API_KEY)
+          .header("Prefer", "return=minimal"))
+          .andExpect(status().isNoContent());
+    }
+
+    mockMvc.perform(get("/api/todos?completed=true")
+        .header("X-API-Key", API_KEY))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$", hasSize(1)));
+
+    Todo stored = todoRepository.findById(saved.getId()).orElseThrow();
+    assertTrue(stored.getCompleted());
+    assertEquals(1L, stored.getVersion());
+    assertFalse(writeBehind.pendingCompletion(saved.getId()).isPresent());
+  }
+
+  @Test
+  @DisplayName("Should write a pending completion before a later update")
+  void shouldFlushBeforeUpdate() throws Exception {
+    mockMvc.perform(patch("/api/todos/" + saved.getId() + "/complete")
+        .header("X-API-Key", API_KEY))
+        .andExpect(status().isOk());
+
+    Todo reopened = new Todo();
+    reopened.setTitle("Reopened");
+    reopened.setCompleted(false);
+    mockMvc.perform(put("/api/todos/" + saved.getId())
+        .header("X-API-Key", API_KEY)
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(objectMapper.writeValueAsString(reopened)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.completed").value(false))
+        .andExpect(jsonPath("$.version").value(2));
+
+    writeBehind.flush();
+    assertFalse(todoRepository.findById(saved.getId()).orElseThrow().getCompleted());
+  }
+
+  @Test
+  @DisplayName("Should answer 404 without journaling an unknown todo")
+  void shouldReturn404ForUnknownTodo() throws Exception {
+    mockMvc.perform(patch("/api/todos/999999/complete")
+        .header("X-API-Key", API_KEY))
+        .andExpect(status().isNotFound());
+
+    assertEquals(0, writeBehind.pendingCount());
+  }
+}